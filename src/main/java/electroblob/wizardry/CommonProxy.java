@@ -1,7 +1,6 @@
 package electroblob.wizardry;
 
-import electroblob.wizardry.block.BlockBookshelf;
-import electroblob.wizardry.inventory.ContainerArcaneWorkbench;
+import electroblob.wizardry.inventory.WorkbenchContainerIndex;
 import electroblob.wizardry.item.ItemSpectralBow;
 import electroblob.wizardry.packet.*;
 import electroblob.wizardry.registry.WizardryItems;
@@ -73,6 +72,13 @@ public class CommonProxy {
 		return null;
 	}
 
+	/** Returns whether a particle of the given type should be spawned at the given position, taking the client's
+	 * particle settings and current load into account. <i>Called automatically by
+	 * {@link electroblob.wizardry.util.ParticleBuilder ParticleBuilder}.</i> */
+	public boolean shouldSpawnParticle(ResourceLocation type, double x, double y, double z){
+		return true;
+	}
+
 	public void spawnTornadoParticle(World world, double x, double y, double z, double velX, double velZ, double radius,
 			int maxAge, IBlockState block, BlockPos pos){
 	}
@@ -175,6 +181,10 @@ public class CommonProxy {
 
 	public void handleConquerShrinePacket(PacketConquerShrine.Message message){}
 
+	public void handleDebrisCloudPacket(PacketDebrisCloud.Message message){}
+
+	public void handleArcaneLockPacket(PacketArcaneLock.Message message){}
+
 	// SECTION Misc
 	// ===============================================================================================================
 
@@ -320,15 +330,10 @@ public class CommonProxy {
 	}
 
 	/** Notifies nearby players of a bookshelf change, causing any lectern or arcane workbench GUI (client-side) or
-	 * container (both sides) to refresh its linked bookshelves (does not send packets). */
+	 * container (both sides) to refresh its linked bookshelves (does not send packets). Arcane workbench containers
+	 * are found via the {@link WorkbenchContainerIndex} and refresh on their next update. */
 	public void notifyBookshelfChange(World world, BlockPos pos){
-		for(EntityPlayer player : world.playerEntities){
-			if(player.getDistanceSq(pos) < BlockBookshelf.PLAYER_NOTIFY_RANGE * BlockBookshelf.PLAYER_NOTIFY_RANGE){
-				if(player.openContainer instanceof ContainerArcaneWorkbench){
-					((ContainerArcaneWorkbench)player.openContainer).refreshBookshelfSlots();
-				}
-			}
-		}
+		WorkbenchContainerIndex.notifyBookshelfChange(world, pos);
 	}
 
 }
\ No newline at end of file
@@ -8,6 +8,9 @@ import electroblob.wizardry.spell.Spell;
 import electroblob.wizardry.util.AllyDesignationSystem.FriendlyFire;
 import electroblob.wizardry.util.MagicDamage;
 import electroblob.wizardry.util.MagicDamage.DamageType;
+import electroblob.wizardry.util.MetaMatcher;
+import electroblob.wizardry.util.SummonBudget;
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -19,6 +22,7 @@ import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.common.config.Property;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.oredict.OreDictionary;
 import org.apache.commons.lang3.tuple.Pair;
@@ -95,6 +99,15 @@ public final class Settings {
 
 	private List<String> redundantKeys = new ArrayList<>();
 
+	/** Compiled matchers for the metadata-sensitive block list options, keyed by the array they were compiled from. */
+	// Arrays have identity equality and every config load, reload or sync creates new ones, so a new matcher is
+	// compiled the first time each new array is checked and the old ones are garbage collected. Compiling lazily
+	// (rather than on config load) is necessary because the config is loaded in preInit, before registry events.
+	// Synchronised because the client and integrated server threads both check the bookshelf lists.
+	private static final Map<Pair<ResourceLocation, Short>[], MetaMatcher<Block>> blockMatchers = Collections.synchronizedMap(new WeakHashMap<>());
+	/** Compiled matchers for the metadata-sensitive item list options, keyed by the array they were compiled from. */
+	private static final Map<Pair<ResourceLocation, Short>[], MetaMatcher<Item>> itemMatchers = Collections.synchronizedMap(new WeakHashMap<>());
+
 	// Server-only settings. These only affect server-side code and hence are not synced. Changing these locally only
 	// has an effect if the local game is the host, i.e. a dedicated server, a LAN host or a singleplayer world.
 
@@ -198,6 +211,14 @@ public final class Settings {
 	public boolean blindnessTweak = true;
 	/** <b>[Server-only]</b> Whether using bonemeal on grass blocks has a chance to grow crystal flowers. */
 	public boolean bonemealGrowsCrystalFlowers = true;
+	/** <b>[Server-only]</b> The maximum number of summoned creatures each player may have at once, or 0 for no limit. */
+	public int summonLimitPerPlayer = SummonBudget.UNLIMITED;
+	/** <b>[Server-only]</b> The maximum number of summoned creatures each team may have at once, or 0 for no limit. */
+	public int summonLimitPerTeam = SummonBudget.UNLIMITED;
+	/** <b>[Server-only]</b> The maximum number of summoned creatures in each dimension at once, or 0 for no limit. */
+	public int summonLimitPerDimension = SummonBudget.UNLIMITED;
+	/** <b>[Server-only]</b> What happens when casting a minion spell would exceed one of the summon limits. */
+	public SummonBudget.Policy summonLimitPolicy = SummonBudget.Policy.DESPAWN_OLDEST;
 	/**
 	 * <b>[Server-only]</b> List of registry names of entities which summoned creatures are allowed to attack, in addition
 	 * to the defaults.
@@ -255,6 +276,10 @@ public final class Settings {
 	public String allyCommandName = "ally";
 	/** <b>[Server-only]</b> The name of the /allies command. */
 	public String alliesCommandName = "allies";
+	/** <b>[Server-only]</b> The name of the /summons command. */
+	public String summonsCommandName = "summons";
+	/** <b>[Server-only]</b> The name of the /locatestructure command. */
+	public String locateCommandName = "locatestructure";
 
 	/**
 	 * <b>[Server-only]</b> List of damage source string identifiers to be ignored when re-applying damage.
@@ -373,6 +398,11 @@ public final class Settings {
 	public boolean blinkEffect = true;
 	/** <b>[Client-only]</b> Whether to use spellcasting animations for players. */
 	public boolean spellcastingAnimations = true;
+	/** <b>[Client-only]</b> The maximum number of wizardry particles (weighted by type) that can exist at once, or 0
+	 * for no limit. */
+	public int particleLimit = 2000;
+	/** <b>[Client-only]</b> The distance beyond which wizardry particles are not spawned at all. */
+	public int particleCullDistance = 64;
 	/** <b>[Client-only]</b> Whether to show the spell HUD when holding a wand. */
 	public boolean showSpellHUD = true;
 	/** <b>[Client-only]</b> Whether to show the charge meter when charging up a spell. */
@@ -663,6 +693,36 @@ public final class Settings {
 		bonemealGrowsCrystalFlowers = property.getBoolean();
 		propOrder.add(property.getName());
 
+		property = config.get(GAMEPLAY_CATEGORY, "summonLimitPerPlayer", 0,
+				"The maximum number of summoned creatures each player may have at once. Creatures in unloaded chunks do not count towards this limit. Set to 0 to disable this limit.",
+				0, 500);
+		property.setLanguageKey("config." + Wizardry.MODID + ".summon_limit_per_player");
+		Wizardry.proxy.setToNumberSliderEntry(property);
+		summonLimitPerPlayer = property.getInt();
+		propOrder.add(property.getName());
+
+		property = config.get(GAMEPLAY_CATEGORY, "summonLimitPerTeam", 0,
+				"The maximum number of summoned creatures the players on each scoreboard team may have at once, in total. Creatures in unloaded chunks do not count towards this limit. Set to 0 to disable this limit.",
+				0, 500);
+		property.setLanguageKey("config." + Wizardry.MODID + ".summon_limit_per_team");
+		Wizardry.proxy.setToNumberSliderEntry(property);
+		summonLimitPerTeam = property.getInt();
+		propOrder.add(property.getName());
+
+		property = config.get(GAMEPLAY_CATEGORY, "summonLimitPerDimension", 0,
+				"The maximum number of summoned creatures that may exist in each dimension at once, including those summoned by NPCs and dispensers. Creatures in unloaded chunks do not count towards this limit. Set to 0 to disable this limit.",
+				0, 2000);
+		property.setLanguageKey("config." + Wizardry.MODID + ".summon_limit_per_dimension");
+		Wizardry.proxy.setToNumberSliderEntry(property);
+		summonLimitPerDimension = property.getInt();
+		propOrder.add(property.getName());
+
+		property = config.get(GAMEPLAY_CATEGORY, "summonLimitPolicy", SummonBudget.Policy.DESPAWN_OLDEST.name,
+				"Controls what happens when casting a minion spell would exceed one of the summon limits. 'Despawn oldest' removes the caster's oldest summoned creatures to make room for the new ones, 'Refuse cast' causes the spell to fail instead.", SummonBudget.Policy.names);
+		property.setLanguageKey("config." + Wizardry.MODID + ".summon_limit_policy");
+		summonLimitPolicy = SummonBudget.Policy.fromName(property.getString());
+		propOrder.add(property.getName());
+
 		checkForRedundantOptions(GAMEPLAY_CATEGORY, propOrder); // Must be before the order is set!
 		config.setCategoryPropertyOrder(GAMEPLAY_CATEGORY, propOrder);
 
@@ -1157,6 +1217,16 @@ public final class Settings {
 		spellcastingAnimations = property.getBoolean();
 		propOrder.add(property.getName());
 
+		property = config.get(CLIENT_CATEGORY, "particleLimit", 2000, "The maximum number of particles from this mod that can exist at once. Larger particles count for more than one towards this limit, and particles are gradually thinned out as the limit is approached. Set to 0 for no limit.", 0, 16384);
+		property.setLanguageKey("config." + Wizardry.MODID + ".particle_limit");
+		particleLimit = property.getInt();
+		propOrder.add(property.getName());
+
+		property = config.get(CLIENT_CATEGORY, "particleCullDistance", 64, "The distance in blocks beyond which particles from this mod are not spawned. Particles are gradually thinned out beyond 16 blocks up to this distance.", 16, 256);
+		property.setLanguageKey("config." + Wizardry.MODID + ".particle_cull_distance");
+		particleCullDistance = property.getInt();
+		propOrder.add(property.getName());
+
 		List<String> elementNames = Arrays.stream(Element.values()).map(Element::getName).collect(Collectors.toList());
 		elementNames.add("");
 		property = config.get(CLIENT_CATEGORY, "donationPerkElement", Element.MAGIC.getName(), "The element of the flying companion orb rendered on donor and contributor players, leave empty to disable the effect. If you're one of them, this setting will change how all players see you (if not, it won't do anything).", elementNames.toArray(new String[0]));
@@ -1211,6 +1281,20 @@ public final class Settings {
 		alliesCommandName = property.getString();
 		propOrder.add(property.getName());
 
+		property = config.get(COMMANDS_CATEGORY, "summonsCommandName", "summons",
+				"The name of the /summons command. This is what you type directly after the /; for example if this was set to 'magic' then instead of typing /summons you would type /magic instead.");
+		property.setLanguageKey("config." + Wizardry.MODID + ".summons_command_name");
+		property.setRequiresWorldRestart(true);
+		summonsCommandName = property.getString();
+		propOrder.add(property.getName());
+
+		property = config.get(COMMANDS_CATEGORY, "locateCommandName", "locatestructure",
+				"The name of the /locatestructure command. This is what you type directly after the /; for example if this was set to 'magic' then instead of typing /locatestructure you would type /magic instead.");
+		property.setLanguageKey("config." + Wizardry.MODID + ".locate_command_name");
+		property.setRequiresWorldRestart(true);
+		locateCommandName = property.getString();
+		propOrder.add(property.getName());
+
 		checkForRedundantOptions(COMMANDS_CATEGORY, propOrder); // Must be before the order is set!
 		config.setCategoryPropertyOrder(COMMANDS_CATEGORY, propOrder);
 	}
@@ -1429,7 +1513,8 @@ public final class Settings {
 	 * @return True if the given array contains an entry that matches the given block, false if not.
 	 */
 	public static boolean containsMetaBlock(Pair<ResourceLocation, Short>[] array, IBlockState block){
-		return containsMetaThing(array, block.getBlock().getRegistryName(), (short)block.getBlock().getMetaFromState(block));
+		return blockMatchers.computeIfAbsent(array, a -> MetaMatcher.compile(a, ForgeRegistries.BLOCKS))
+				.matches(block.getBlock(), (short)block.getBlock().getMetaFromState(block));
 	}
 
 	/**
@@ -1439,12 +1524,14 @@ public final class Settings {
 	 * @return True if the given array contains an entry that matches the given stack, false if not.
 	 */
 	public static boolean containsMetaItem(Pair<ResourceLocation, Short>[] array, ItemStack stack){
-		return containsMetaThing(array, stack.getItem().getRegistryName(), (short)stack.getMetadata());
+		return itemMatchers.computeIfAbsent(array, a -> MetaMatcher.compile(a, ForgeRegistries.ITEMS))
+				.matches(stack.getItem(), (short)stack.getMetadata());
 	}
 
 	/**
 	 * Checks a metadata-sensitive list option (see {@link Settings#parseItemMetaStrings(String...)} for the given
-	 * id/metadata pair.
+	 * id/metadata pair. This method compares registry names directly, so {@link Settings#containsMetaBlock(Pair[], IBlockState)}
+	 * or {@link Settings#containsMetaItem(Pair[], ItemStack)} should be used instead where possible.
 	 * @param array The config option to check
 	 * @param id The id to search for
 	 * @param metadata The metadata value to search for
@@ -6,8 +6,10 @@ import com.google.gson.JsonObject;
 import electroblob.wizardry.block.BlockBookshelf;
 import electroblob.wizardry.command.CommandCastSpell;
 import electroblob.wizardry.command.CommandDiscoverSpell;
+import electroblob.wizardry.command.CommandLocateStructure;
 import electroblob.wizardry.command.CommandSetAlly;
 import electroblob.wizardry.command.CommandViewAllies;
+import electroblob.wizardry.command.CommandViewSummons;
 import electroblob.wizardry.data.DispenserCastingData;
 import electroblob.wizardry.data.WizardData;
 import electroblob.wizardry.integration.antiqueatlas.WizardryAntiqueAtlasIntegration;
@@ -197,6 +199,8 @@ public class Wizardry {
 		event.registerServerCommand(new CommandSetAlly());
 		event.registerServerCommand(new CommandViewAllies());
 		event.registerServerCommand(new CommandDiscoverSpell());
+		event.registerServerCommand(new CommandViewSummons());
+		event.registerServerCommand(new CommandLocateStructure());
 	}
 
 	@SubscribeEvent
@@ -4,7 +4,6 @@ import electroblob.wizardry.constants.Constants;
 import electroblob.wizardry.data.SpellEmitterData;
 import electroblob.wizardry.data.SpellGlyphData;
 import electroblob.wizardry.data.WizardData;
-import electroblob.wizardry.entity.living.ISpellCaster;
 import electroblob.wizardry.event.DiscoverSpellEvent;
 import electroblob.wizardry.event.SpellCastEvent;
 import electroblob.wizardry.integration.DamageSafetyChecker;
@@ -29,7 +28,6 @@ import net.minecraft.entity.projectile.EntityArrow;
 import net.minecraft.init.MobEffects;
 import net.minecraft.item.ItemStack;
 import net.minecraft.potion.PotionEffect;
-import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentTranslation;
@@ -41,7 +39,6 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.PlaySoundAtEntityEvent;
 import net.minecraftforge.event.entity.living.*;
-import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
 import net.minecraftforge.event.entity.player.AdvancementEvent;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
@@ -354,36 +351,6 @@ public final class WizardryEventHandler {
 		}
 	}
 
-	@SubscribeEvent
-	public static void onLivingUpdateEvent(LivingUpdateEvent event){
-
-		if(event.getEntityLiving().world.isRemote){
-
-			// Client-side continuous spell casting for NPCs
-
-			if(event.getEntity() instanceof ISpellCaster && event.getEntity() instanceof EntityLiving){
-
-				Spell spell = ((ISpellCaster)event.getEntity()).getContinuousSpell();
-				SpellModifiers modifiers = ((ISpellCaster)event.getEntity()).getModifiers();
-				int count = ((ISpellCaster)event.getEntity()).getSpellCounter();
-
-				if(spell != null && spell != Spells.none){ // IntelliJ is wrong, do NOT remove the null check!
-
-					if(!MinecraftForge.EVENT_BUS.post(new SpellCastEvent.Tick(SpellCastEvent.Source.NPC, spell, event.getEntityLiving(),
-							modifiers, count))){
-
-						spell.cast(event.getEntity().world, (EntityLiving)event.getEntity(), EnumHand.MAIN_HAND, count,
-								// TODO: This implementation of modifiers relies on them being accessible client-side.
-								// 		 Right now that doesn't matter because NPCs don't use modifiers, but they might in future
-								((EntityLiving)event.getEntity()).getAttackTarget(), modifiers);
-
-						((ISpellCaster)event.getEntity()).setSpellCounter(count + 1);
-					}
-				}
-			}
-		}
-	}
-
 	@SubscribeEvent(priority = EventPriority.LOWEST) // No siphoning if the event is cancelled, that could be exploited...
 	public static void onLivingDeathEvent(LivingDeathEvent event){
 
@@ -66,6 +66,12 @@ public class StructureTrigger implements ICriterionTrigger<StructureTrigger.Inst
 		return new StructureTrigger.Instance(this.id, JsonUtils.getString(json, "structure_type"));
 	}
 
+	/** Returns true if the given player has any criteria for this trigger that have not yet been granted. Criteria
+	 * stop being listened for once they are granted, so this returns false if they have all been granted already. */
+	public boolean hasListeners(EntityPlayerMP player){
+		return this.listeners.containsKey(player.getAdvancements());
+	}
+
 	public void trigger(EntityPlayerMP player){
 
 		StructureTrigger.Listeners listeners = this.listeners.get(player.getAdvancements());
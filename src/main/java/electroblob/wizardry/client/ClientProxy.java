@@ -47,6 +47,7 @@ import electroblob.wizardry.spell.*;
 import electroblob.wizardry.tileentity.*;
 import electroblob.wizardry.util.ParticleBuilder;
 import electroblob.wizardry.util.ParticleBuilder.Type;
+import electroblob.wizardry.util.SpellSearch;
 import electroblob.wizardry.util.WandHelper;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -165,6 +166,7 @@ public class ClientProxy extends CommonProxy {
 		if(manager instanceof IReloadableResourceManager){
 			((IReloadableResourceManager)manager).registerReloadListener(GuiSpellDisplay::loadSkins);
 			((IReloadableResourceManager)manager).registerReloadListener(GuiWizardHandbook::loadHandbookFile);
+			((IReloadableResourceManager)manager).registerReloadListener(m -> SpellSearch.clearIndex());
 		}
 	}
 
@@ -414,7 +416,14 @@ public class ClientProxy extends CommonProxy {
 			Wizardry.logger.warn("Unrecognised particle type {} ! Ensure the particle is properly registered.", type);
 			return null;
 		}
-		return factory.createParticle(world, x, y, z);
+		ParticleWizardry particle = ParticlePool.obtain(type, factory, world, x, y, z);
+		ParticleBudget.onSpawned(particle);
+		return particle;
+	}
+
+	@Override
+	public boolean shouldSpawnParticle(ResourceLocation type, double x, double y, double z){
+		return ParticleBudget.shouldSpawn(type, x, y, z);
 	}
 
 	@Override
@@ -520,6 +529,11 @@ public class ClientProxy extends CommonProxy {
 						((EntityLiving)caster).setAttackTarget((EntityLivingBase)target);
 					}
 				}
+
+			}else if(spell instanceof None && caster instanceof ISpellCaster){
+				// Continuous spells are stopped with no target when the caster loses its target altogether
+				((ISpellCaster)caster).setContinuousSpell(spell);
+				((ISpellCaster)caster).setSpellCounter(0);
 			}
 
 		}else if(caster != null){
@@ -712,6 +726,20 @@ public class ClientProxy extends CommonProxy {
 		}else Wizardry.logger.warn("Received a PacketConquerShrine, but there was no shrine core at the position sent");
 	}
 
+	@Override
+	public void handleDebrisCloudPacket(PacketDebrisCloud.Message message){
+		// No need to warn if the entity doesn't exist, it might just have despawned already
+		Entity entity = Minecraft.getMinecraft().world.getEntityByID(message.entityID);
+		if(entity instanceof EntityBlackHole) ((EntityBlackHole)entity).getDebris().addAll(message.pieces);
+	}
+
+	@Override
+	public void handleArcaneLockPacket(PacketArcaneLock.Message message){
+		if(message.wholeChunk) RenderArcaneLock.clearChunk(message.chunkX, message.chunkZ);
+		message.locked.forEach(p -> RenderArcaneLock.setLocked(p, true));
+		message.unlocked.forEach(p -> RenderArcaneLock.setLocked(p, false));
+	}
+
 	// Rendering
 	// ===============================================================================================================
 
@@ -3,6 +3,7 @@ package electroblob.wizardry.client;
 import electroblob.wizardry.client.renderer.overlay.RenderBlinkEffect;
 import electroblob.wizardry.data.DispenserCastingData;
 import electroblob.wizardry.data.SpellEmitterData;
+import electroblob.wizardry.entity.living.ActiveSpellCasters;
 import electroblob.wizardry.item.ItemArtefact;
 import electroblob.wizardry.item.ItemFlamecatcher;
 import electroblob.wizardry.item.ItemSpectralBow;
@@ -101,6 +102,7 @@ public final class WizardryClientEventHandler {
 				}
 			}
 
+			ActiveSpellCasters.updateClientCasters(world);
 			SpellEmitterData.update(world);
 			PotionSlowTime.cleanUpEntities(world);
 		}
@@ -4,6 +4,7 @@ import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.client.DrawingUtils;
 import electroblob.wizardry.registry.WizardryTabs;
 import electroblob.wizardry.spell.Spell;
+import electroblob.wizardry.util.SpellSearch;
 import net.minecraft.client.gui.GuiTextField;
 import net.minecraft.client.gui.inventory.GuiContainerCreative;
 import net.minecraft.client.resources.I18n;
@@ -69,7 +70,8 @@ public class CustomCreativeSearchHandler {
 				tab.displayAllRelevantItems(container.itemList);
 
 				if(!searchText.isEmpty()){
-					container.itemList.removeIf(s -> !Spell.byMetadata(s.getMetadata()).matches(searchText));
+					SpellSearch.Query query = SpellSearch.compile(searchText);
+					container.itemList.removeIf(s -> !query.test(Spell.byMetadata(s.getMetadata())));
 					container.scrollTo(0); // Seems to refresh the GUI somehow so it displays correctly
 				}
 			}
@@ -15,6 +15,7 @@ import electroblob.wizardry.tileentity.TileEntityLectern;
 import electroblob.wizardry.util.GeometryUtils;
 import electroblob.wizardry.util.ISpellSortable;
 import electroblob.wizardry.util.ParticleBuilder;
+import electroblob.wizardry.util.SpellSearch;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.PositionedSoundRecord;
 import net.minecraft.client.audio.SoundHandler;
@@ -90,6 +91,8 @@ public class GuiLectern extends GuiSpellInfo implements ISpellSortable {
 	private boolean sortDescending = false;
 
 	private GuiTextField searchField;
+	/** The query that {@link GuiLectern#matchingSpells} currently matches. */
+	private SpellSearch.Query searchQuery = SpellSearch.ALL;
 	private boolean searchNeedsClearing;
 	private int searchBarHoverTime;
 
@@ -362,7 +365,7 @@ public class GuiLectern extends GuiSpellInfo implements ISpellSortable {
 
 		if(this.searchField.textboxKeyTyped(typedChar, keyCode)){
 			this.currentPage = 0;
-			updateMatchingSpells();
+			updateMatchingSpells(true);
 			updateButtonVisiblity();
 		}else{
 			super.keyTyped(typedChar, keyCode);
@@ -400,8 +403,19 @@ public class GuiLectern extends GuiSpellInfo implements ISpellSortable {
 	}
 
 	private void updateMatchingSpells(){
-		matchingSpells = availableSpells.stream()
-				.filter(s -> s.matches(searchField.getText().toLowerCase(Locale.ROOT)))
+		updateMatchingSpells(false);
+	}
+
+	/** Updates the list of matching spells. If searchChanged is true and the search text was only added to, just the
+	 * spells that already matched are tested again. */
+	private void updateMatchingSpells(boolean searchChanged){
+
+		SpellSearch.Query query = SpellSearch.compile(searchField.getText().toLowerCase(Locale.ROOT));
+		List<Spell> candidates = searchChanged && matchingSpells != null && query.narrows(searchQuery) ? matchingSpells : availableSpells;
+		searchQuery = query;
+
+		matchingSpells = candidates.stream()
+				.filter(query)
 				.sorted(sortDescending ? sortType.comparator.reversed() : sortType.comparator)
 				.collect(Collectors.toList());
 	}
@@ -78,6 +78,18 @@ public class GuiSpellDisplay {
 	/** Controls the spell switching animation. Positive when switching to the next spell, negative when switching to
 	 * the previous spell. Decremented in magnitude by 1 each tick until it reaches 0 again. */
 	private static int switchTimer = 0;
+
+	/** The HUD state for the wand that was last displayed, or null if it needs calculating again. This is recalculated
+	 * once per tick (since the wand's NBT and the player's discovered spells can only change once per tick), and
+	 * immediately if the wand changes or the player switches spells. Only the cooldown bar and spell switching
+	 * animation are updated every frame. */
+	private static HudState hudState;
+
+	/** The skin last returned by {@link GuiSpellDisplay#getSkin(String)} for the key in the config, or null if it
+	 * needs retrieving again. */
+	private static Skin currentSkin;
+	/** The key {@link GuiSpellDisplay#currentSkin} was retrieved for. */
+	private static String currentSkinKey;
 	
 	/** 
 	 * Starts the spell switching animation.
@@ -85,6 +97,7 @@ public class GuiSpellDisplay {
 	 */
 	public static void playSpellSwitchAnimation(boolean next){
 		switchTimer = next ? SPELL_SWITCH_TIME : -SPELL_SWITCH_TIME;
+		hudState = null; // The selected spell has just changed
 	}
 	
 	/** Returns an unmodifiable set of the string keys for all of the loaded spell HUD skins. */
@@ -150,43 +163,52 @@ public class GuiSpellDisplay {
 
 		switch(event.getType()){
 			case CROSSHAIRS:
-				renderChargeMeter(player, wand, width, height, event.getPartialTicks());
+				renderChargeMeter(player, wand, getHudState(player, wand), width, height, event.getPartialTicks());
 				break;
 			case HOTBAR:
-				renderSpellHUD(player, wand, mainHand, width, height, event.getPartialTicks(), false);
+				renderSpellHUD(player, getHudState(player, wand), mainHand, width, height, event.getPartialTicks(), false);
 				break;
 			case TEXT:
-				renderSpellHUD(player, wand, mainHand, width, height, event.getPartialTicks(), true);
+				renderSpellHUD(player, getHudState(player, wand), mainHand, width, height, event.getPartialTicks(), true);
 				break;
 		}
 
 	}
 
+	/** Returns the HUD state for the given wand, calculating it if it is out of date. */
+	private static HudState getHudState(EntityPlayer player, ItemStack wand){
+		// Identity comparison is intended; the held stack is replaced whenever the server updates it
+		if(hudState == null || hudState.wand != wand) hudState = new HudState(player, wand);
+		return hudState;
+	}
+
+	/** Returns the HUD skin currently selected in the config, retrieving it only if the config has changed. */
+	@Nullable
+	private static Skin getCurrentSkin(){
+		if(!Wizardry.settings.spellHUDSkin.equals(currentSkinKey)){
+			currentSkinKey = Wizardry.settings.spellHUDSkin;
+			currentSkin = getSkin(currentSkinKey);
+		}
+		return currentSkin;
+	}
+
 	/**
 	 * Renders the spell charge meter around the crosshairs.
 	 * @param player A reference to the client player
 	 * @param wand The wand the HUD is for
+	 * @param state The HUD state for the wand
 	 * @param width The width of the screen
 	 * @param height The height of the screen
 	 * @param partialTicks The current partial tick time
 	 */
-	private static void renderChargeMeter(EntityPlayer player, ItemStack wand, int width, int height, float partialTicks){
+	private static void renderChargeMeter(EntityPlayer player, ItemStack wand, HudState state, int width, int height, float partialTicks){
 
 		if(!Wizardry.settings.showChargeMeter) return;
 		if(Minecraft.getMinecraft().gameSettings.showDebugInfo) return; // Don't show charge meter in the debug screen
 		if(Minecraft.getMinecraft().gameSettings.thirdPersonView != 0) return; // Don't show in third person
 		if(wand != player.getActiveItemStack()) return; // Don't show when using the other held item
 
-		if(!(wand.getItem() instanceof ISpellCastingItem)) throw new IllegalArgumentException("The given stack must contain an ISpellCastingItem!");
-
-		Spell spell = ((ISpellCastingItem)wand.getItem()).getCurrentSpell(wand);
-
-		int chargeup = spell.getChargeup();
-
-		if(WizardData.get(player) != null){
-			// Pretty sure this is accessible client-side since it's only assigned from common code
-			chargeup = (int)(chargeup * WizardData.get(player).itemCastingModifiers.get(SpellModifiers.CHARGEUP));
-		}
+		int chargeup = state.chargeup;
 
 		if(chargeup <= 0) return;
 
@@ -211,19 +233,17 @@ public class GuiSpellDisplay {
 	/**
 	 * Renders the main spell HUD in the corner of the screen.
 	 * @param player A reference to the client player
-	 * @param wand The wand the HUD is for
+	 * @param state The HUD state for the wand
 	 * @param mainHand True if the wand is in the player's main hand, false if it is in their offhand
 	 * @param width The width of the screen
 	 * @param height The height of the screen
 	 * @param partialTicks The current partial tick time
 	 * @param textLayer True to render the text layer, false to render the background (hotbar layer)
 	 */
-	private static void renderSpellHUD(EntityPlayer player, ItemStack wand, boolean mainHand, int width, int height, float partialTicks, boolean textLayer){
+	private static void renderSpellHUD(EntityPlayer player, HudState state, boolean mainHand, int width, int height, float partialTicks, boolean textLayer){
 
 		if(!Wizardry.settings.showSpellHUD) return;
 
-		if(!(wand.getItem() instanceof ISpellCastingItem)) throw new IllegalArgumentException("The given stack must contain an ISpellCastingItem!");
-
 		boolean flipX = Wizardry.settings.spellHUDPosition.flipX;
 		boolean flipY = Wizardry.settings.spellHUDPosition.flipY;
 
@@ -232,7 +252,7 @@ public class GuiSpellDisplay {
 			flipX = flipX == ((mainHand ? player.getPrimaryHand() : player.getPrimaryHand().opposite()) == EnumHandSide.LEFT);
 		}
 
-		Skin skin = getSkin(Wizardry.settings.spellHUDSkin);
+		Skin skin = getCurrentSkin();
 
 		if(skin == null) return; // Can't draw anything if there is no skin loaded!
 
@@ -258,39 +278,23 @@ public class GuiSpellDisplay {
 			y = MathHelper.ceil(y/scale);
 		}
 
-		Spell spell = ((ISpellCastingItem)wand.getItem()).getCurrentSpell(wand);
-		int cooldown = ((ISpellCastingItem)wand.getItem()).getCurrentCooldown(wand);
-		int maxCooldown = ((ISpellCastingItem)wand.getItem()).getCurrentMaxCooldown(wand);
-
 		if(textLayer){
 
 			float animationProgress = Math.signum(switchTimer) * ((SPELL_SWITCH_TIME - Math.abs(switchTimer) +
 					partialTicks) / SPELL_SWITCH_TIME);
 
-			String prevSpellName = getFormattedSpellName(((ISpellCastingItem)wand.getItem()).getPreviousSpell(wand), player, 0);
-			String spellName = getFormattedSpellName(spell, player, cooldown);
-			String nextSpellName = getFormattedSpellName(((ISpellCastingItem)wand.getItem()).getNextSpell(wand), player, 0);
-
-			skin.drawText(x, y, flipX, flipY, prevSpellName, spellName, nextSpellName, animationProgress);
+			skin.drawText(x, y, flipX, flipY, state.prevSpellName, state.spellName, state.nextSpellName, animationProgress);
 
 		}else{
 
-			boolean discovered = true;
-
-			if(!player.isCreative() && WizardData.get(player) != null){
-				discovered = WizardData.get(player).hasSpellBeenDiscovered(spell);
-			}
-
-			ResourceLocation icon = discovered ? spell.getIcon() : Spells.none.getIcon();
-
 			float progress = 1;
 			// Doesn't really matter what progress is when in creative, but we might as well avoid the calculation.
-			if(!player.isCreative()){
+			if(!state.creative){
 				// Subtracted partial tick time to make it smoother
-				progress = maxCooldown == 0 ? 1 : (maxCooldown - (float)cooldown + partialTicks) / maxCooldown;
+				progress = state.maxCooldown == 0 ? 1 : (state.maxCooldown - (float)state.cooldown + partialTicks) / state.maxCooldown;
 			}
 
-			skin.drawBackground(x, y, flipX, flipY, icon, progress, player.isCreative(), player.isPotionActive(WizardryPotions.arcane_jammer));
+			skin.drawBackground(x, y, flipX, flipY, state.icon, progress, state.creative, state.jammed);
 
 		}
 
@@ -331,6 +335,7 @@ public class GuiSpellDisplay {
 		if(event.getEntity() == Minecraft.getMinecraft().player){ // Makes sure this only gets called once each tick.
 			if(switchTimer > 0) switchTimer--;
 			else if(switchTimer < 0) switchTimer++;
+			hudState = null; // Cooldowns, discovered spells, etc. may have changed
 		}
 	}
 	
@@ -343,6 +348,8 @@ public class GuiSpellDisplay {
 			List<IResource> indexFiles = manager.getAllResources(INDEX);
 			
 			skins.clear(); // Wipes the skins map before repopulating it
+			currentSkin = null;
+			currentSkinKey = null;
 			
 			for(IResource indexFile : indexFiles){
 				
@@ -381,6 +388,46 @@ public class GuiSpellDisplay {
 		}
 	}
 	
+	/** Stores the values displayed on the spell HUD for a particular wand, so they don't have to be retrieved from the
+	 * wand's NBT and formatted every frame. */
+	private static final class HudState {
+
+		private final ItemStack wand;
+		private final int cooldown, maxCooldown, chargeup;
+		private final boolean creative, jammed;
+		private final ResourceLocation icon;
+		private final String prevSpellName, spellName, nextSpellName;
+
+		private HudState(EntityPlayer player, ItemStack wand){
+
+			if(!(wand.getItem() instanceof ISpellCastingItem)) throw new IllegalArgumentException("The given stack must contain an ISpellCastingItem!");
+
+			ISpellCastingItem item = (ISpellCastingItem)wand.getItem();
+
+			this.wand = wand;
+
+			Spell spell = item.getCurrentSpell(wand);
+			this.cooldown = item.getCurrentCooldown(wand);
+			this.maxCooldown = item.getCurrentMaxCooldown(wand);
+			this.creative = player.isCreative();
+			this.jammed = player.isPotionActive(WizardryPotions.arcane_jammer);
+
+			WizardData data = WizardData.get(player);
+
+			int chargeup = spell.getChargeup();
+			// Pretty sure this is accessible client-side since it's only assigned from common code
+			if(data != null) chargeup = (int)(chargeup * data.itemCastingModifiers.get(SpellModifiers.CHARGEUP));
+			this.chargeup = chargeup;
+
+			boolean discovered = creative || data == null || data.hasSpellBeenDiscovered(spell);
+			this.icon = discovered ? spell.getIcon() : Spells.none.getIcon();
+
+			this.prevSpellName = getFormattedSpellName(item.getPreviousSpell(wand), player, 0);
+			this.spellName = getFormattedSpellName(spell, player, cooldown);
+			this.nextSpellName = getFormattedSpellName(item.getNextSpell(wand), player, 0);
+		}
+	}
+
 	/**
 	 * Instances of this class represent individual HUD skins, complete with texture and all necessary metadata. This
 	 * class serves to separate the logic behind the spell HUD from its actual rendering.
@@ -21,7 +21,9 @@ import net.minecraft.client.audio.PositionedSoundRecord;
 import net.minecraft.client.audio.SoundHandler;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.client.gui.GuiTextField;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.resources.I18n;
 import net.minecraft.client.resources.IResource;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.item.ItemStack;
@@ -36,6 +38,7 @@ import java.io.InputStreamReader;
 import java.util.List;
 import java.util.*;
 import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
 
 /**
  * GUI class for the wizard's handbook. Like any GUI class, this is instantiated each time the book is opened. As of
@@ -89,6 +92,8 @@ public class GuiWizardHandbook extends GuiScreen {
 	/** The distance of the page numbers from the bottom of the GUI. */
 	private static final int PAGE_NUMBER_INSET = 22;
 
+	private static final int SEARCH_FIELD_WIDTH = 120, SEARCH_FIELD_HEIGHT = 12, SEARCH_FIELD_INSET = 4;
+
 	// IDEA: Constant dimensions could be converted to JSON like the spell HUD ones
 
 	// Global variables
@@ -113,9 +118,24 @@ public class GuiWizardHandbook extends GuiScreen {
 	 */
 	private static String bookmarkSection;
 
+	/**
+	 * The settings the handbook was last formatted with, or null if it hasn't been formatted since the last resource
+	 * reload. Formatting the whole handbook is slow, so it is only done again when something that affects the layout
+	 * (the font, format tags or which sections are unlocked) has changed.
+	 */
+	private static List<Object> layoutKey;
+	/** The GUI position the handbook was last formatted at, used to move the hyperlinks when the screen is resized. */
+	private static int layoutLeft, layoutTop;
+	/** The number of <b>single</b> pages in the book when it was last formatted. */
+	private static int layoutPageCount = 1;
+	/** Whether the recipes have been loaded from the registry since the last resource reload. */
+	private static boolean recipesLoaded;
+
 	// Buttons
 	private GuiButton bookmark, next, previous, nextSection, previousSection, menu;
 
+	private GuiTextField searchField;
+
 	// Handbook content
 
 	// As a general rule, I prefer to make static final fields lowercase if they're collections that change, because even
@@ -316,6 +336,14 @@ public class GuiWizardHandbook extends GuiScreen {
 					bookmark.isMouseOver() ? 310 : 288, 0, 11, 191, TEXTURE_WIDTH, TEXTURE_HEIGHT);
 		}
 
+		// Search field
+		searchField.drawTextBox();
+
+		if(searchField.getText().isEmpty()){
+			this.fontRenderer.drawString(I18n.format("gui." + Wizardry.MODID + ":handbook.search"), searchField.x + 4,
+					searchField.y + (searchField.height - 8) / 2, 0x707070);
+		}
+
 		// Recipe tooltips
 		recipes.values().forEach(r -> r.drawTooltips(this, fontRenderer, itemRender, currentPage, left, top, mouseX, mouseY));
 
@@ -345,7 +373,11 @@ public class GuiWizardHandbook extends GuiScreen {
 		final int left = this.width / 2 - GUI_WIDTH / 2;
 		final int top = this.height / 2 - GUI_HEIGHT / 2;
 
-		recipes.values().forEach(CraftingRecipe::load);
+		// The recipes aren't loaded when the handbook file is, so they are retrieved the first time the book is opened
+		if(!recipesLoaded){
+			recipes.values().forEach(CraftingRecipe::load);
+			recipesLoaded = true;
+		}
 
 		int nextButtonId = 0;
 
@@ -373,20 +405,44 @@ public class GuiWizardHandbook extends GuiScreen {
 			}
 		});
 
-		pageCount = 1;
+		String searchText = searchField == null ? "" : searchField.getText(); // Keep the search text when resized
+		this.searchField = new GuiTextField(nextButtonId++, this.fontRenderer, left + GUI_WIDTH / 2 - SEARCH_FIELD_WIDTH / 2,
+				top + GUI_HEIGHT + SEARCH_FIELD_INSET, SEARCH_FIELD_WIDTH, SEARCH_FIELD_HEIGHT);
+		this.searchField.setMaxStringLength(50);
+		this.searchField.setText(searchText);
+		this.searchField.setCanLoseFocus(false);
+		this.searchField.setFocused(true);
 
-		// Clears instances of all images and recipes
-		images.values().forEach(Image::clearInstances);
-		recipes.values().forEach(CraftingRecipe::clearInstances);
+		List<Object> key = Arrays.asList(fontRenderer.getUnicodeFlag(), fontRenderer.FONT_HEIGHT, new HashMap<>(FORMAT_TAGS),
+				sections.values().stream().map(Section::isUnlocked).collect(Collectors.toList()));
 
-		// Formats all the unlocked sections in order
-		for(Section section : sections.values()){
-			if(section.isUnlocked()){
-				pageCount = section.format(this.fontRenderer, pageCount, left, top);
-				buttonList.addAll(section.getButtons());
+		if(!key.equals(layoutKey)){
+
+			layoutPageCount = 1;
+
+			// Clears instances of all images and recipes
+			images.values().forEach(Image::clearInstances);
+			recipes.values().forEach(CraftingRecipe::clearInstances);
+
+			// Formats all the unlocked sections in order
+			for(Section section : sections.values()){
+				if(section.isUnlocked()) layoutPageCount = section.format(this.fontRenderer, layoutPageCount, left, top);
 			}
+
+			layoutKey = key;
+
+		}else if(left != layoutLeft || top != layoutTop){
+			// Only the screen size has changed, so the layout is the same but the hyperlinks need moving
+			final int dx = left - layoutLeft, dy = top - layoutTop;
+			sections.values().forEach(s -> s.getButtons().forEach(b -> { b.x += dx; b.y += dy; }));
+			contentsList.values().forEach(c -> c.getButtons().forEach(b -> { b.x += dx; b.y += dy; }));
 		}
 
+		layoutLeft = left;
+		layoutTop = top;
+		pageCount = layoutPageCount;
+
+		sections.values().forEach(s -> { if(s.isUnlocked()) buttonList.addAll(s.getButtons()); });
 		contentsList.values().forEach(c -> buttonList.addAll(c.getButtons()));
 
 		this.mc.getSoundHandler().playSound(PositionedSoundRecord.getMasterRecord(WizardrySounds.MISC_BOOK_OPEN, 1));
@@ -418,6 +474,10 @@ public class GuiWizardHandbook extends GuiScreen {
 
 			bookmarkSection = null; // Also need to wipe the reference to the old bookmarked section
 
+			// The font and handbook contents may have changed, so everything needs formatting again
+			layoutKey = null;
+			recipesLoaded = false;
+
 			BufferedReader reader = new BufferedReader(new InputStreamReader(handbookFile.getInputStream(), StandardCharsets.UTF_8));
 
 			JsonElement je = gson.fromJson(reader, JsonElement.class);
@@ -534,6 +594,49 @@ public class GuiWizardHandbook extends GuiScreen {
 		}
 	}
 
+	@Override
+	protected void keyTyped(char typedChar, int keyCode) throws IOException{
+
+		if(keyCode == Keyboard.KEY_RETURN || keyCode == Keyboard.KEY_NUMPADENTER){
+			turnToSearchResult(true);
+		}else if(searchField.textboxKeyTyped(typedChar, keyCode)){
+			turnToSearchResult(false);
+		}else{
+			super.keyTyped(typedChar, keyCode);
+		}
+	}
+
+	/**
+	 * Turns to the first unlocked section whose title or text contains the current search text, or the first one after
+	 * the current section if next is true (going back to the start after the last section). Does nothing if there are
+	 * no matching sections.
+	 */
+	private void turnToSearchResult(boolean next){
+
+		String text = searchField.getText().trim().toLowerCase(Locale.ROOT);
+		if(text.isEmpty() || sectionList == null || sectionList.isEmpty()) return;
+
+		int start = 0;
+
+		if(next){
+			for(int i = 0; i < sectionList.size(); i++){
+				// Same as the section buttons, taking the right-hand page means this always moves on
+				if(sectionList.get(i).containsPage(doubleToSinglePage(currentPage, true))){
+					start = i + 1;
+					break;
+				}
+			}
+		}
+
+		for(int i = 0; i < sectionList.size(); i++){
+			Section section = sectionList.get((start + i) % sectionList.size());
+			if(section.matches(text)){
+				currentPage = singleToDoublePage(section.startPage);
+				return;
+			}
+		}
+	}
+
 	@Override
 	protected void mouseClicked(int mouseX, int mouseY, int mouseButton) throws IOException{
 		if(mouseButton == 1){
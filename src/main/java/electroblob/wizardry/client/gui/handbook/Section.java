@@ -42,6 +42,8 @@ class Section {
 	private ResourceLocation[] triggers;
 	private Map<String, Section> subsections;
 	private boolean centreX, centreY;
+	/** The lower-case title and text of this section, with format tags and hyperlink targets removed, for searching. */
+	private String searchText = "";
 
 	// Derived fields, not explicitly defined in JSON
 	/** The <b>single-page</b> index of the first page of this section. */
@@ -73,6 +75,13 @@ class Section {
 		return this.isUnlocked() && startPage <= page && startPage + pages.size() > page;
 	}
 
+	/**
+	 * Returns true if this section is unlocked and its title or text contains the given (lower-case) string.
+	 */
+	boolean matches(String text){
+		return this.isUnlocked() && searchText.contains(text);
+	}
+
 	/**
 	 * Returns true if this section is unlocked for the client player, false if not. Always returns true if
 	 * handbook progression is disabled in the config.
@@ -331,7 +340,7 @@ class Section {
 		List<String> page = new ArrayList<>();
 		pages.add(page);
 
-		while(!lines.isEmpty()){
+		for(String line : lines){
 
 			if(page.size() == maxLineNumber){
 				// Removes blank lines at the end of the page
@@ -340,8 +349,6 @@ class Section {
 				pages.add(page = new ArrayList<>());
 			}
 
-			String line = lines.remove(0);
-
 			// Prevents blank lines at the start of the page
 			if(!page.isEmpty() || !line.isEmpty()) page.add(line);
 		}
@@ -389,6 +396,8 @@ class Section {
 					.toArray(String[]::new);
 		}
 
+		section.searchText = buildSearchText(section);
+
 		if(JsonUtils.hasField(json, "triggers")){
 			section.triggers = Streams.stream(JsonUtils.getJsonArray(json, "triggers"))
 					.map(e -> new ResourceLocation(JsonUtils.getString(e, "element of array triggers")))
@@ -411,6 +420,27 @@ class Section {
 		return section;
 	}
 
+	/** Returns the lower-case title and text paragraphs of the given section as a single string, for searching. */
+	private static String buildSearchText(Section section){
+
+		StringBuilder builder = new StringBuilder(section.title);
+
+		if(section.rawText != null){
+			for(String paragraph : section.rawText){
+				// Images and recipes have no text
+				if(paragraph.startsWith(GuiWizardHandbook.FORMAT_MARKER + GuiWizardHandbook.IMAGE_TAG)
+				|| paragraph.startsWith(GuiWizardHandbook.FORMAT_MARKER + GuiWizardHandbook.RECIPE_TAG)) continue;
+				builder.append('\n').append(paragraph);
+			}
+		}
+
+		return builder.toString()
+				.replaceAll(GuiWizardHandbook.FORMAT_MARKER + "\\w+", "") // Format tags
+				.replaceAll(GuiWizardHandbook.HYPERLINK_MARKER + "\\S+\\s([^" + GuiWizardHandbook.HYPERLINK_MARKER + "]*)" + GuiWizardHandbook.HYPERLINK_MARKER, "$1") // Links with display text
+				.replaceAll(GuiWizardHandbook.HYPERLINK_MARKER + "(\\S+)" + GuiWizardHandbook.HYPERLINK_MARKER, "$1") // Links without
+				.toLowerCase(Locale.ROOT);
+	}
+
 	static void populate(Map<String, Section> map, JsonObject json){
 
 		JsonObject sectionsObject = JsonUtils.getJsonObject(json, "sections");
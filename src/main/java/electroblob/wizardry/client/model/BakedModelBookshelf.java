@@ -12,16 +12,35 @@ import net.minecraftforge.common.property.IExtendedBlockState;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dynamic baked model for bookshelves, which adds the quads for the book in each slot on top of the base bookshelf
+ * model. The resulting quads are cached for each combination of books, since the same few combinations tend to
+ * appear over and over again in libraries.
+ */
 public class BakedModelBookshelf implements IBakedModel {
 
 	private final IBakedModel bookshelf;
 	private final IBakedModel[][] books;
 
+	/** The number of bits used to store each slot in the cache keys, or 0 if the keys wouldn't fit in a long. */
+	private final int bitsPerSlot;
+	/** Cache of the quads for each combination of books, for each side (with index 6 for null). Chunks are built on
+	 * multiple threads so these need to be concurrent. Models are re-baked when resources are reloaded, so the cache
+	 * is cleared along with them. */
+	private final List<Map<Long, List<BakedQuad>>> cache = new ArrayList<>();
+
 	public BakedModelBookshelf(IBakedModel bookshelf, IBakedModel[][] books){
 		this.bookshelf = bookshelf;
 		this.books = books;
+		// Each slot can be any book index or books.length for empty
+		int bits = 32 - Integer.numberOfLeadingZeros(books.length);
+		this.bitsPerSlot = bits * BlockBookshelf.SLOT_COUNT <= Long.SIZE ? bits : 0;
+		for(int i = 0; i <= EnumFacing.values().length; i++) cache.add(new ConcurrentHashMap<>());
 	}
 
 	@Override
@@ -30,18 +49,34 @@ public class BakedModelBookshelf implements IBakedModel {
 		IBakedModel fallback = Minecraft.getMinecraft().getBlockRendererDispatcher().getBlockModelShapes().getModelManager().getMissingModel();
 		if(state == null) return fallback.getQuads(null, side, rand);
 
-		// It took me waaay too long to realise I needed a new list here
-		List<BakedQuad> quads = new ArrayList<>(bookshelf.getQuads(state, side, rand)); // Lists ain't immutable, chief
-
 		IExtendedBlockState extendedState = (IExtendedBlockState)state;
 
+		int[] slots = new int[BlockBookshelf.SLOT_COUNT];
+		long key = 0;
+
 		for(int i = 0; i<BlockBookshelf.SLOT_COUNT; i++){
 			Integer value = extendedState.getValue(BlockBookshelf.BOOKS[i]);
 			if(value == null || value < 0) return fallback.getQuads(null, side, rand);
-			if(value < books.length) quads.addAll(books[value][i].getQuads(state, side, rand)); // Empty slots use books.length
+			slots[i] = Math.min(value, books.length); // Empty slots use books.length
+			key = key << bitsPerSlot | slots[i];
+		}
+
+		if(bitsPerSlot == 0) return buildQuads(state, side, rand, slots);
+
+		return cache.get(side == null ? EnumFacing.values().length : side.ordinal())
+				.computeIfAbsent(key, k -> buildQuads(state, side, rand, slots));
+	}
+
+	private List<BakedQuad> buildQuads(IBlockState state, @Nullable EnumFacing side, long rand, int[] slots){
+
+		// It took me waaay too long to realise I needed a new list here
+		List<BakedQuad> quads = new ArrayList<>(bookshelf.getQuads(state, side, rand)); // Lists ain't immutable, chief
+
+		for(int i = 0; i<BlockBookshelf.SLOT_COUNT; i++){
+			if(slots[i] < books.length) quads.addAll(books[slots[i]][i].getQuads(state, side, rand));
 		}
 
-		return quads;
+		return Collections.unmodifiableList(quads);
 	}
 
 	@Override
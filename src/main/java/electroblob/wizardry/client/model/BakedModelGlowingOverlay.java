@@ -19,7 +19,10 @@ import org.apache.commons.lang3.tuple.Pair;
 import javax.annotation.Nullable;
 import javax.vecmath.Matrix4f;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Custom baked model that stores a list of texture names and sets the lighting to full brightness for any quads
@@ -36,54 +39,18 @@ import java.util.List;
 public class BakedModelGlowingOverlay implements IBakedModel {
 
 	// Something something something cache, says Forge
-	// This breaks randomised block models (because it's cached, duh...) but simply including the rand parameter will
-	// completely defeat the point of the cache so I need some way of storing the randomised model variants... hmmm...
-	// See WeightedBakedModel for more on randomisation (it's pretty similar to my 1.7 implementation from years ago)
-
-//	private class CacheKey {
-//
-//		private IBakedModel base;
-//		private String suffix;
-//		private IBlockState state;
-//		private EnumFacing side;
-//
-//		public CacheKey(IBakedModel base, String suffix, IBlockState state, EnumFacing side){
-//			this.base = base;
-//			this.suffix = suffix;
-//			this.state = state;
-//			this.side = side;
-//		}
-//
-//		@Override
-//		public boolean equals(Object o){
-//
-//			if(this == o) return true;
-//			if(o == null || getClass() != o.getClass()) return false;
-//
-//			CacheKey cacheKey = (CacheKey)o;
-//
-//			if(cacheKey.side != side) return false;
-//			if(!state.equals(cacheKey.state)) return false;
-//
-//			return true;
-//		}
-//
-//		@Override
-//		public int hashCode() {
-//			return state.hashCode() + (31 * (side != null ? side.hashCode() : 0));
-//		}
-//	}
-//
-//	private static final LoadingCache<CacheKey, List<BakedQuad>> CACHE = CacheBuilder.newBuilder().build(new CacheLoader<CacheKey, List<BakedQuad>>() {
-//		@Override
-//		public List<BakedQuad> load(CacheKey key) {
-//			return transformQuads(key.base.getQuads(key.state, key.side, 0), key.suffix);
-//		}
-//	});
+	// Caching by state and side breaks randomised block models (see WeightedBakedModel), and including the rand
+	// parameter completely defeats the point of the cache. Instead, the transformed quads are cached against the list
+	// of quads the delegate model returns - each random variant returns its own list, so this works for any model.
+	// Models are re-baked when resources are reloaded, so the cache is cleared along with them.
 
 	private final IBakedModel delegate;
 	private String suffix;
 
+	/** Cache of the quads returned by the delegate model to the corresponding transformed quads. Chunks are built on
+	 * multiple threads so this needs to be concurrent. */
+	private final Map<List<BakedQuad>, List<BakedQuad>> cache = new ConcurrentHashMap<>();
+
 	public BakedModelGlowingOverlay(IBakedModel delegate, String suffix){
 		this.delegate = delegate;
 		this.suffix = suffix;
@@ -92,8 +59,7 @@ public class BakedModelGlowingOverlay implements IBakedModel {
 	@Override
 	public List<BakedQuad> getQuads(@Nullable IBlockState state, @Nullable EnumFacing side, long rand){
 		if(state == null) return delegate.getQuads(state, side, rand);
-		return transformQuads(delegate.getQuads(state, side, rand), suffix);
-		//return CACHE.getUnchecked(new CacheKey(delegate, suffix, state instanceof IExtendedBlockState ? ((IExtendedBlockState) state).getClean() : state, side));
+		return cache.computeIfAbsent(delegate.getQuads(state, side, rand), quads -> transformQuads(quads, suffix));
 	}
 
 	// I would write these myself but I'd end up with almost the exact same thing anyway
@@ -101,17 +67,18 @@ public class BakedModelGlowingOverlay implements IBakedModel {
 
 	private static List<BakedQuad> transformQuads(List<BakedQuad> oldQuads, String suffix){
 
-		List<BakedQuad> quads = new ArrayList<>(oldQuads);
+		List<BakedQuad> quads = null;
 
-		for(int i = 0; i < quads.size(); ++i){
-			BakedQuad quad = quads.get(i);
+		for(int i = 0; i < oldQuads.size(); ++i){
+			BakedQuad quad = oldQuads.get(i);
 
 			if(quad.getSprite().getIconName().endsWith(suffix)){
+				if(quads == null) quads = new ArrayList<>(oldQuads); // Only copy the list if something needs changing
 				quads.set(i, transformQuad(quad, 0.007F)); // What's the significance of 0.007?
 			}
 		}
 
-		return quads;
+		return quads == null ? oldQuads : Collections.unmodifiableList(quads);
 	}
 
 	private static BakedQuad transformQuad(BakedQuad quad, float light){
@@ -0,0 +1,188 @@
+package electroblob.wizardry.client.particle;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.util.ParticleBuilder.Type;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Decides whether each wizardry particle actually gets spawned, so that spells with lots of particles don't bring the
+ * game to a halt when several of them are being cast at once. Particles are thinned out randomly based on:
+ * <ul>
+ * <li>The vanilla particle setting - decreased and minimal spawn a fraction of the particles</li>
+ * <li>Distance from the camera - particles are spawned in full within 16 blocks, then thinned out further and further
+ * up to the cull distance in the config, beyond which none are spawned at all</li>
+ * <li>Load - each particle type has a weight, and once the total weight of existing particles reaches half the
+ * particle limit in the config, particles are thinned out more and more until the limit is reached</li>
+ * <li>Frame rate - if the frame rate drops below 30, particles are thinned out in proportion</li>
+ * </ul>
+ * Particles with a weight of 0 are always spawned. This is used for particles that form part of a continuous effect,
+ * such as beams and lightning, which would flicker if they were thinned out.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber(Side.CLIENT)
+public final class ParticleBudget {
+
+	/** The distance within which particles are never thinned out due to distance. */
+	private static final double FULL_DETAIL_DISTANCE = 16;
+	/** The fraction of particles that are spawned at the cull distance, just before they stop being spawned. */
+	private static final float MIN_DISTANCE_FACTOR = 0.25f;
+	/** The fraction of particles that are spawned with each of the vanilla particle settings. */
+	private static final float[] PARTICLE_SETTING_FACTORS = {1, 0.5f, 0.2f};
+	/** The fraction of the particle limit above which particles start being thinned out. */
+	private static final float LOAD_THRESHOLD = 0.5f;
+	/** The frame rate below which particles start being thinned out. */
+	private static final int TARGET_FPS = 30;
+	/** The lowest fraction of particles that are spawned due to low frame rates. */
+	private static final float MIN_FPS_FACTOR = 0.25f;
+
+	/** The number of ticks between each recount of the particles that are still alive. */
+	private static final int RECOUNT_INTERVAL = 20;
+
+	private static final int DEFAULT_WEIGHT = 1;
+
+	private static final Map<ResourceLocation, Integer> weights = new HashMap<>();
+
+	private static final Random random = new Random();
+
+	/** All the wizardry particles with a non-zero weight that have been spawned and might still exist, along with
+	 * their age at the last recount (or -1 if they haven't been recounted yet). */
+	// Weak so particles that the particle manager has discarded without expiring them can still be garbage collected
+	private static final Map<ParticleWizardry, Integer> liveParticles = new WeakHashMap<>();
+
+	/** The total weight of all the wizardry particles that currently exist. Kept up to date as particles spawn and
+	 * expire, and recounted every {@link ParticleBudget#RECOUNT_INTERVAL} ticks to correct for particles that vanish
+	 * without expiring (vanilla removes the oldest particles in a layer without expiring them once it gets full). Those
+	 * particles stop being updated, so any particle whose age hasn't changed since the last recount is assumed to be
+	 * gone, rather than waiting for it to be garbage collected. */
+	private static int load = 0;
+
+	private static int ticksSinceRecount = 0;
+
+	static {
+		// Continuous effects
+		setWeight(Type.BEAM, 0);
+		setWeight(Type.BLOCK_HIGHLIGHT, 0);
+		setWeight(Type.GUARDIAN_BEAM, 0);
+		setWeight(Type.LIGHTNING, 0);
+		setWeight(Type.PATH, 0);
+		// Large translucent particles, which cost a lot more to render
+		setWeight(Type.CLOUD, 4);
+		setWeight(Type.FLASH, 2);
+		setWeight(Type.SPHERE, 2);
+	}
+
+	private ParticleBudget(){} // No instances!
+
+	/**
+	 * Sets the weight of the given particle type, which is how much each particle of that type counts towards the
+	 * particle limit. A weight of 0 means particles of that type are always spawned. Particle types that are not
+	 * given a weight have a weight of 1.
+	 */
+	public static void setWeight(ResourceLocation type, int weight){
+		if(weight < 0) throw new IllegalArgumentException("Particle weights cannot be negative");
+		weights.put(type, weight);
+	}
+
+	private static int getWeight(ResourceLocation type){
+		return weights.getOrDefault(type, DEFAULT_WEIGHT);
+	}
+
+	/** Returns whether a particle of the given type should be spawned at the given position. */
+	public static boolean shouldSpawn(ResourceLocation type, double x, double y, double z){
+
+		int weight = getWeight(type);
+		if(weight == 0) return true;
+
+		Minecraft mc = Minecraft.getMinecraft();
+		Entity viewer = mc.getRenderViewEntity();
+		if(viewer == null) return true;
+
+		int limit = Wizardry.settings.particleLimit;
+		if(limit > 0 && load + weight > limit) return false;
+
+		double cullDistance = Wizardry.settings.particleCullDistance;
+		double distance = viewer.getDistance(x, y, z);
+		if(distance > cullDistance) return false;
+
+		float chance = PARTICLE_SETTING_FACTORS[Math.min(mc.gameSettings.particleSetting, PARTICLE_SETTING_FACTORS.length - 1)];
+
+		if(distance > FULL_DETAIL_DISTANCE && cullDistance > FULL_DETAIL_DISTANCE){
+			chance *= 1 - (1 - MIN_DISTANCE_FACTOR) * (distance - FULL_DETAIL_DISTANCE) / (cullDistance - FULL_DETAIL_DISTANCE);
+		}
+
+		if(limit > 0){
+			float fraction = load / (float)limit;
+			if(fraction > LOAD_THRESHOLD) chance *= (1 - fraction) / (1 - LOAD_THRESHOLD);
+		}
+
+		int fps = Minecraft.getDebugFPS();
+		// The frame rate is 0 until the first second has passed
+		if(fps > 0 && fps < TARGET_FPS) chance *= Math.max(MIN_FPS_FACTOR, fps / (float)TARGET_FPS);
+
+		return chance >= 1 || random.nextFloat() < chance;
+	}
+
+	/** Called when the given particle is created. */
+	public static void onSpawned(ParticleWizardry particle){
+		int weight = getWeight(particle.type);
+		if(weight == 0) return;
+		load += weight;
+		liveParticles.put(particle, -1);
+	}
+
+	/** Called when the given particle expires. */
+	static void onExpired(ParticleWizardry particle){
+		// Particles created before a world change won't have been counted in the current load
+		load = Math.max(0, load - getWeight(particle.type));
+	}
+
+	/** Recalculates the load from the particles that are actually still alive. */
+	private static void recount(){
+
+		load = 0;
+
+		for(Iterator<Map.Entry<ParticleWizardry, Integer>> iterator = liveParticles.entrySet().iterator(); iterator.hasNext();){
+
+			Map.Entry<ParticleWizardry, Integer> entry = iterator.next();
+			ParticleWizardry particle = entry.getKey();
+
+			if(particle == null || !particle.isAlive() || particle.getAge() == entry.getValue()){
+				iterator.remove();
+			}else{
+				entry.setValue(particle.getAge());
+				load += getWeight(particle.type);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onClientTickEvent(TickEvent.ClientTickEvent event){
+		// Particles don't update while the game is paused, so they would all look like they'd been discarded
+		if(event.phase == TickEvent.Phase.END && !Minecraft.getMinecraft().isGamePaused()
+				&& ++ticksSinceRecount >= RECOUNT_INTERVAL){
+			ticksSinceRecount = 0;
+			recount();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnloadEvent(WorldEvent.Unload event){
+		// Particles are all cleared when the world changes, without being expired
+		if(event.getWorld().isRemote){
+			liveParticles.clear();
+			load = 0;
+		}
+	}
+
+}
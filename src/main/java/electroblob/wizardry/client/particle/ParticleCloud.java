@@ -14,9 +14,23 @@ public class ParticleCloud extends ParticleWizardry {
 	private static final ResourceLocation[] TEXTURES = generateTextures("cloud", 4);
 
 	public ParticleCloud(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setRBGColorF(1, 1, 1);
 		this.particleMaxAge = 48 + this.rand.nextInt(12);
 		this.particleScale *= 6;
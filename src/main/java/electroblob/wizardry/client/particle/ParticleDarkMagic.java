@@ -12,7 +12,22 @@ public class ParticleDarkMagic extends ParticleWizardry {
 
 	public ParticleDarkMagic(World world, double x, double y, double z){
 		super(world, x, y, z);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		this.baseSpellTextureIndex = 128;
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.motionY *= 0.20000000298023224D;
 		this.setRBGColorF(1, 1, 1);
 		this.particleScale *= 0.75F;
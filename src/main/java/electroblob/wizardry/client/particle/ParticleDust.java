@@ -7,7 +7,21 @@ public class ParticleDust extends ParticleWizardry {
 
 	public ParticleDust(World world, double x, double y, double z){
 		super(world, x, y, z);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setParticleTextureIndex(0);
 		this.setSize(0.01F, 0.01F);
 
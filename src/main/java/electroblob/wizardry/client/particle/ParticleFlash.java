@@ -15,6 +15,21 @@ public class ParticleFlash extends ParticleWizardry {
 
 	public ParticleFlash(World world, double x, double y, double z){
 		super(world, x, y, z);
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setRBGColorF(1, 1, 1);
 		this.particleScale = 0.6f; // 7.1f is the value used in fireworks
 		this.particleMaxAge = 6;
@@ -14,9 +14,23 @@ public class ParticleIce extends ParticleWizardry {
 	private static final ResourceLocation[] TEXTURES = generateTextures("ice", 8);
 	
 	public ParticleIce(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.canCollide = true;
 		
 		// Defaults
@@ -14,9 +14,23 @@ public class ParticleLeaf extends ParticleWizardry {
 	private static final ResourceLocation[] TEXTURES = generateTextures("leaf", 16);
 
 	public ParticleLeaf(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setVelocity(0, -0.03, 0);
 		this.setMaxAge(10 + rand.nextInt(5));
 		this.particleScale *= 1.4f;
@@ -1,5 +1,9 @@
 package electroblob.wizardry.client.particle;
 
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.floats.FloatList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
@@ -8,6 +12,8 @@ import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.world.World;
 import org.lwjgl.opengl.GL11;
 
+import java.util.Random;
+
 public class ParticleLightning extends ParticleTargeted {
 	
 	/** Half the width of the outermost layer. */
@@ -24,9 +30,33 @@ public class ParticleLightning extends ParticleTargeted {
 	private static final float FORK_CHANCE = 0.3f;
 	/** Number of ticks to wait before the arc changes shape again. */
 	private static final int UPDATE_PERIOD = 1;
+	/** Number of different arc shapes to cache for each number of segments. */
+	private static final int SHAPE_VARIANTS = 32;
+	/** Number of floats used to store each segment of a cached arc shape. */
+	private static final int SEGMENT_SIZE = 9;
+
+	/** Cached arc shapes for each number of segments. Generating the vertex jitter and forks needs a lot of random
+	 * numbers, so rather than doing it for every layer of every arc each frame, each arc just picks one of these. */
+	private static final Int2ObjectMap<float[][]> shapes = new Int2ObjectOpenHashMap<>();
+	private static final Random shapeRandom = new Random();
 
 	public ParticleLightning(World world, double x, double y, double z){
 		super(world, x, y, z); // Does not have a texture!
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		seed = this.rand.nextLong();
 		this.setRBGColorF(0.2f, 0.6f, 1); // Default blue colour
 		this.setMaxAge(3);
@@ -57,109 +87,151 @@ public class ParticleLightning extends ParticleTargeted {
 
 		boolean freeEnd = this.target == null;
 		
-		int numberOfSegments = (int)Math.round(length/MAX_SEGMENT_LENGTH); // Number of segments
-
-		for(int layer=0; layer<3; layer++){
-
-			double px=0, py=0, pz=0;
-			// Creates a random from the arc's seed field + the number of ticks it has existed/the update period.
-			// By using a seed, we can ensure the vertex positions and forks are identical a) for each layer, even
-			// though they are rendered sequentially, and b) across many frames (and ticks, if updateTime > 1).
-			random.setSeed(this.seed + this.particleAge/UPDATE_PERIOD);
-
-			// numberOfSegments-1 because the last segment is handled separately.
-			for(int i=0; i<numberOfSegments-1; i++){
-
-				double px2 = (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-				double py2 = (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-				double pz2 = pz + length/(double)numberOfSegments; // For now they are all the same length
-
-				drawSegment(tessellator, layer, px, py, pz, px2, py2, pz2, THICKNESS*particleScale);
-
-				// Forks
-				if(random.nextFloat() < FORK_CHANCE){
-
-					double px3=px, py3=py, pz3=pz;
-
-					for(int j=0; j<random.nextInt(MAX_FORK_SEGMENTS-1)+1; j++){
-						// Forks set their centreline to the x/y coordinates of the vertex they originate from
-						double px4 = px3 + (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-						double py4 = py3 + (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-						double pz4 = pz3 + MIN_SEGMENT_LENGTH + random.nextDouble()*(MAX_SEGMENT_LENGTH - MIN_SEGMENT_LENGTH);
-
-						drawSegment(tessellator, layer, px3, py3, pz3, px4, py4, pz4, THICKNESS*0.8f*particleScale);
-
-						// Forks of forks
-						if(random.nextFloat() < FORK_CHANCE){
+		int numberOfSegments = Math.max(1, (int)Math.round(length/MAX_SEGMENT_LENGTH)); // Number of segments
 
-							double px5 = px3 + (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-							double py5 = py3 + (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale;
-							double pz5 = pz3 + MIN_SEGMENT_LENGTH + random.nextDouble()*(MAX_SEGMENT_LENGTH - MIN_SEGMENT_LENGTH);
+		// Picking the shape using the arc's seed field + the number of ticks it has existed/the update period means
+		// it stays the same across many frames (and ticks, if updateTime > 1), and differs between arcs
+		float[] shape = shapes.computeIfAbsent(numberOfSegments, ParticleLightning::createShapes)
+				[(int)Math.floorMod(this.seed + this.particleAge/UPDATE_PERIOD, (long)SHAPE_VARIANTS)];
 
-							drawSegment(tessellator, layer, px3, py3, pz3, px5, py5, pz5, THICKNESS*0.6f*particleScale);
-						}
-
-						px3 = px4;
-						py3 = py4;
-						pz3 = pz4;
-					}
-				}
-
-				px = px2;
-				py = py2;
-				pz = pz2;
-			}
+		// All the layers are drawn in one go, innermost first
+		BufferBuilder buffer = tessellator.getBuffer();
+		buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
 
-			// Last segment has a specific end position and cannot fork.
-			double px2 = freeEnd ? (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale : 0;
-			double py2 = freeEnd ? (random.nextDouble()*2-1)*VERTEX_JITTER*particleScale : 0;
-			drawSegment(tessellator, layer, px, py, pz, px2, py2, length, THICKNESS*particleScale);
+		drawLayer(buffer, shape, length, freeEnd, 0.25f, 1, 1, 1, 1);
+		drawLayer(buffer, shape, length, freeEnd, 0.6f, (particleRed + 1)/2, (particleGreen + 1)/2, (particleBlue + 1)/2, 0.65f);
+		drawLayer(buffer, shape, length, freeEnd, 1, particleRed, particleGreen, particleBlue, 0.3f);
 
-		}
+		tessellator.draw();
 
 		GlStateManager.enableTexture2D();
 		GlStateManager.enableLighting();
 		GlStateManager.disableBlend();
 	}
 	
-	/** Draws the given layer of a segment of the arc, from the point (x1, y1, z1) to the point (x2, y2, z2), with the given thickness. */
-	private void drawSegment(Tessellator tessellator, int layer, double x1, double y1, double z1, double x2, double y2, double z2, float thickness){
+	/** Draws one layer of every segment of the given arc shape, with the given thickness (as a fraction of the
+	 * outermost layer) and colour. */
+	private void drawLayer(BufferBuilder buffer, float[] shape, double length, boolean freeEnd, float thickness,
+						   float r, float g, float b, float a){
 
-		BufferBuilder buffer = tessellator.getBuffer();
-		buffer.begin(GL11.GL_TRIANGLE_STRIP, DefaultVertexFormats.POSITION_COLOR);
-		
-		switch(layer){
-		
-		case 0:
-			drawShearedBox(buffer, x1, y1, z1, x2, y2, z2, 0.25f*thickness, 1, 1, 1, 1);
-			break;
-
-		case 1:
-			drawShearedBox(buffer, x1, y1, z1, x2, y2, z2, 0.6f*thickness, (particleRed + 1)/2, (particleGreen + 1)/2,
-					(particleBlue + 1)/2, 0.65f);
-			break;
-
-		case 2:
-			drawShearedBox(buffer, x1, y1, z1, x2, y2, z2, thickness, particleRed, particleGreen, particleBlue, 0.3f);
-			break;
+		for(int i = 0; i < shape.length; i += SEGMENT_SIZE){
+
+			// Last segment has a specific end position unless the arc has a free end
+			boolean fixedEnd = !freeEnd && i == shape.length - SEGMENT_SIZE;
+
+			drawShearedBox(buffer,
+					shape[i] * particleScale, shape[i+1] * particleScale, shape[i+2] * length + shape[i+3],
+					fixedEnd ? 0 : shape[i+4] * particleScale, fixedEnd ? 0 : shape[i+5] * particleScale,
+					shape[i+6] * length + shape[i+7],
+					THICKNESS * particleScale * thickness * shape[i+8], r, g, b, a);
 		}
-		
-		tessellator.draw();
 	}
-	
+
 	/** Draws a single box for one segment of the arc, from the point (x1, y1, z1) to the point (x2, y2, z2), with given width and colour. */
-	private void drawShearedBox(BufferBuilder buffer, double x1, double y1, double z1, double x2, double y2, double z2, float width, float r, float g, float b, float a){
-		
+	private static void drawShearedBox(BufferBuilder buffer, double x1, double y1, double z1, double x2, double y2, double z2, float width, float r, float g, float b, float a){
+
 		buffer.pos(x1-width, y1-width, z1).color(r, g, b, a).endVertex();
 		buffer.pos(x2-width, y2-width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x2-width, y2+width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x1-width, y1+width, z1).color(r, g, b, a).endVertex();
+
 		buffer.pos(x1-width, y1+width, z1).color(r, g, b, a).endVertex();
 		buffer.pos(x2-width, y2+width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x2+width, y2+width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x1+width, y1+width, z1).color(r, g, b, a).endVertex();
+
 		buffer.pos(x1+width, y1+width, z1).color(r, g, b, a).endVertex();
 		buffer.pos(x2+width, y2+width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x2+width, y2-width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x1+width, y1-width, z1).color(r, g, b, a).endVertex();
+
 		buffer.pos(x1+width, y1-width, z1).color(r, g, b, a).endVertex();
 		buffer.pos(x2+width, y2-width, z2).color(r, g, b, a).endVertex();
-		buffer.pos(x1-width, y1-width, z1).color(r, g, b, a).endVertex();
 		buffer.pos(x2-width, y2-width, z2).color(r, g, b, a).endVertex();
+		buffer.pos(x1-width, y1-width, z1).color(r, g, b, a).endVertex();
+	}
+
+	/** Generates the cached arc shapes for the given number of segments. */
+	private static float[][] createShapes(int numberOfSegments){
+		float[][] variants = new float[SHAPE_VARIANTS][];
+		for(int i = 0; i < SHAPE_VARIANTS; i++) variants[i] = createShape(numberOfSegments, shapeRandom);
+		return variants;
+	}
+
+	/**
+	 * Generates a random arc shape with the given number of segments. Each segment is stored as 9 floats: the x, y,
+	 * z fraction and z offset of each end, followed by the thickness as a fraction of the main arc. The x and y
+	 * coordinates must be multiplied by the particle scale, and the z coordinate of each end is the z fraction
+	 * multiplied by the length of the arc plus the z offset. The last segment is always the one that ends at the target.
+	 */
+	private static float[] createShape(int numberOfSegments, Random random){
+
+		FloatList shape = new FloatArrayList();
+
+		float px=0, py=0, pt=0;
+
+		// numberOfSegments-1 because the last segment is handled separately.
+		for(int i=0; i<numberOfSegments-1; i++){
+
+			float px2 = jitter(random);
+			float py2 = jitter(random);
+			float pt2 = pt + 1f/numberOfSegments; // For now they are all the same length
+
+			addSegment(shape, px, py, pt, 0, px2, py2, pt2, 0, 1);
+
+			// Forks
+			if(random.nextFloat() < FORK_CHANCE){
+
+				float px3=px, py3=py, pz3=0;
+
+				for(int j=0; j<random.nextInt(MAX_FORK_SEGMENTS-1)+1; j++){
+					// Forks set their centreline to the x/y coordinates of the vertex they originate from
+					float px4 = px3 + jitter(random);
+					float py4 = py3 + jitter(random);
+					float pz4 = pz3 + forkSegmentLength(random);
+
+					addSegment(shape, px3, py3, pt, pz3, px4, py4, pt, pz4, 0.8f);
+
+					// Forks of forks
+					if(random.nextFloat() < FORK_CHANCE){
+
+						float px5 = px3 + jitter(random);
+						float py5 = py3 + jitter(random);
+						float pz5 = pz3 + forkSegmentLength(random);
+
+						addSegment(shape, px3, py3, pt, pz3, px5, py5, pt, pz5, 0.6f);
+					}
+
+					px3 = px4;
+					py3 = py4;
+					pz3 = pz4;
+				}
+			}
+
+			px = px2;
+			py = py2;
+			pt = pt2;
+		}
+
+		// Last segment cannot fork, and its end is only jittered if the arc has a free end
+		addSegment(shape, px, py, pt, 0, jitter(random), jitter(random), 1, 0, 1);
+
+		return shape.toFloatArray();
+	}
+
+	private static float jitter(Random random){
+		return (random.nextFloat()*2-1) * (float)VERTEX_JITTER;
+	}
+
+	private static float forkSegmentLength(Random random){
+		return (float)(MIN_SEGMENT_LENGTH + random.nextDouble()*(MAX_SEGMENT_LENGTH - MIN_SEGMENT_LENGTH));
+	}
+
+	private static void addSegment(FloatList shape, float x1, float y1, float t1, float z1, float x2, float y2,
+								   float t2, float z2, float thickness){
+		shape.add(x1); shape.add(y1); shape.add(t1); shape.add(z1);
+		shape.add(x2); shape.add(y2); shape.add(t2); shape.add(z2);
+		shape.add(thickness);
 	}
 
 }
@@ -7,6 +7,21 @@ public class ParticleMagicBubble extends ParticleWizardry {
 
 	public ParticleMagicBubble(World world, double x, double y, double z){
 		super(world, x, y, z);
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setRBGColorF(1, 1, 1);
 		this.setParticleTextureIndex(32);
 		this.setSize(0.02F, 0.02F);
@@ -28,7 +43,8 @@ public class ParticleMagicBubble extends ParticleWizardry {
 		this.motionY *= 0.8500000238418579D;
 		this.motionZ *= 0.8500000238418579D;
 
-		if(this.particleMaxAge-- <= 0){
+		// Counts the age up rather than the max age down, since ParticleBudget relies on the age to spot discarded particles
+		if(this.particleAge++ >= this.particleMaxAge){
 			this.setExpired();
 		}
 	}
@@ -15,9 +15,23 @@ public class ParticleMagicFlame extends ParticleWizardry {
 	private static final ResourceLocation[][] TEXTURES = generateTextures("flame", 4, 8);
 
 	public ParticleMagicFlame(World world, double x, double y, double z){
-
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
 
+	private void setDefaults(){
 		this.setRBGColorF(1, 1, 1);
 		this.particleAlpha = 1;
 		this.particleMaxAge = 12 + rand.nextInt(4);
@@ -0,0 +1,142 @@
+package electroblob.wizardry.client.particle;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.client.particle.ParticleWizardry.IWizardryParticleFactory;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Keeps a pool of expired particles for each particle type, so that they can be reused rather than creating a new
+ * particle every time one is spawned. Wizardry spawns a lot of particles (some spells spawn hundreds per tick), and
+ * without pooling these all end up as garbage after a few ticks.
+ * <p></p>
+ * Only particles that return true from {@link ParticleWizardry#isReusable()} are pooled; all other particle types are
+ * created as normal. Particles are returned to the pool when they expire, but not straight away - vanilla's
+ * {@code ParticleManager} only removes expired particles the next time it updates, so they are held back until the
+ * end of the following tick to make sure the same particle never ends up being updated or rendered twice.
+ * <p></p>
+ * Pool usage statistics are shown on the right of the debug screen.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber(Side.CLIENT)
+public final class ParticlePool {
+
+	/** The maximum number of free particles kept for each particle type. Anything over this is left to be garbage
+	 * collected as normal. */
+	private static final int MAX_POOL_SIZE = 512;
+
+	private static final Map<ResourceLocation, Pool> pools = new LinkedHashMap<>();
+
+	/** Particles that expired during the current tick. */
+	private static List<ParticleWizardry> expired = new ArrayList<>();
+	/** Particles that expired during the previous tick, which are now safe to reuse. */
+	private static List<ParticleWizardry> expiredLastTick = new ArrayList<>();
+
+	private ParticlePool(){} // No instances!
+
+	/**
+	 * Returns a particle of the given type at the given position, reusing a pooled particle if one is available and
+	 * creating a new one using the given factory otherwise.
+	 */
+	public static ParticleWizardry obtain(ResourceLocation type, IWizardryParticleFactory factory, World world,
+										  double x, double y, double z){
+
+		Pool pool = pools.computeIfAbsent(type, k -> new Pool());
+		pool.requests++;
+
+		ParticleWizardry particle = pool.free.poll();
+
+		if(particle == null){
+			particle = factory.createParticle(world, x, y, z);
+			particle.type = type;
+			pool.reusable = particle.isReusable();
+		}else{
+			pool.hits++;
+			particle.reset(world, x, y, z);
+		}
+
+		return particle;
+	}
+
+	/** Called when the given particle expires. */
+	static void release(ParticleWizardry particle){
+		if(particle.type != null && particle.isReusable()) expired.add(particle);
+	}
+
+	@SubscribeEvent
+	public static void onClientTickEvent(TickEvent.ClientTickEvent event){
+
+		if(event.phase == TickEvent.Phase.END){
+
+			for(ParticleWizardry particle : expiredLastTick){
+				Pool pool = pools.get(particle.type);
+				if(pool != null && pool.free.size() < MAX_POOL_SIZE){
+					particle.entity = null; // Don't keep entities loaded just because a free particle references them
+					pool.free.push(particle);
+				}
+			}
+
+			expiredLastTick.clear();
+
+			List<ParticleWizardry> temp = expiredLastTick;
+			expiredLastTick = expired;
+			expired = temp;
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnloadEvent(WorldEvent.Unload event){
+		// Particles are all cleared when the world changes, and pooled ones would keep the old world loaded
+		if(event.getWorld().isRemote){
+			pools.values().forEach(p -> p.free.clear());
+			expired.clear();
+			expiredLastTick.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onRenderGameOverlayEvent(RenderGameOverlayEvent.Text event){
+
+		if(!Minecraft.getMinecraft().gameSettings.showDebugInfo) return;
+
+		long requests = 0, hits = 0;
+
+		for(Pool pool : pools.values()){
+			if(!pool.reusable) continue;
+			requests += pool.requests;
+			hits += pool.hits;
+		}
+
+		if(requests == 0) return;
+
+		event.getRight().add("");
+		event.getRight().add(String.format("%s particle pools: %d%% reused", Wizardry.NAME, 100 * hits / requests));
+
+		for(Map.Entry<ResourceLocation, Pool> entry : pools.entrySet()){
+			Pool pool = entry.getValue();
+			if(!pool.reusable || pool.requests == 0) continue;
+			event.getRight().add(String.format("%s: %d%% (%d free)", entry.getKey(),
+					100 * pool.hits / pool.requests, pool.free.size()));
+		}
+	}
+
+	private static class Pool {
+
+		private final Deque<ParticleWizardry> free = new ArrayDeque<>();
+		/** Whether particles of this type can be reused, or false if no particles of this type have been created yet. */
+		private boolean reusable = false;
+		private long requests, hits;
+	}
+
+}
@@ -14,9 +14,23 @@ public class ParticleSnow extends ParticleWizardry {
 	private static final ResourceLocation[] TEXTURES = generateTextures("snow", 4);
 
 	public ParticleSnow(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setVelocity(0, -0.02, 0);
 		this.particleScale *= 0.6f;
 		this.particleGravity = 0;
@@ -15,9 +15,23 @@ public class ParticleSpark extends ParticleWizardry {
 	private static final ResourceLocation[][] TEXTURES = generateTextures("lightning", 8, 4);
 
 	public ParticleSpark(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES[world.rand.nextInt(TEXTURES.length)]);
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES[world.rand.nextInt(TEXTURES.length)]);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.particleScale *= 1.4f;
 		this.setRBGColorF(1, 1, 1);
 		this.shaded = false;
@@ -14,9 +14,23 @@ public class ParticleSparkle extends ParticleWizardry {
 	private static final ResourceLocation[] TEXTURES = generateTextures("sparkle", 11);
 
 	public ParticleSparkle(World world, double x, double y, double z){
-		
 		super(world, x, y, z, TEXTURES); // This time the textures are all one long animation
-		
+		setDefaults();
+	}
+
+	@Override
+	protected boolean isReusable(){
+		return true;
+	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		setTextures(TEXTURES);
+		setDefaults();
+	}
+
+	private void setDefaults(){
 		this.setRBGColorF(1, 1, 1);
 		this.particleMaxAge = 48 + this.rand.nextInt(12);
 		this.particleScale *= 0.75f;
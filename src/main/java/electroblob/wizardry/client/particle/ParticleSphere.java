@@ -1,14 +1,11 @@
 package electroblob.wizardry.client.particle;
 
+import electroblob.wizardry.client.renderer.CachedMesh;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
-import net.minecraft.client.renderer.Tessellator;
-import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
-import org.lwjgl.opengl.GL11;
 
 public class ParticleSphere extends ParticleWizardry {
 
@@ -57,14 +54,13 @@ public class ParticleSphere extends ParticleWizardry {
 		GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE);
 		OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, 240f, 240f);
 
-		float latStep = (float)Math.PI/20;
-		float longStep = (float)Math.PI/20;
-
 		float sphereRadius = this.particleScale * (this.particleAge + partialTicks - 1) / this.particleMaxAge;
 		float alpha = this.particleAlpha * (1 - (this.particleAge + partialTicks - 1) / this.particleMaxAge);
 
-		drawSphere(Tessellator.getInstance(), buffer, sphereRadius, latStep, longStep, true, particleRed, particleGreen, particleBlue, alpha);
-		drawSphere(Tessellator.getInstance(), buffer, sphereRadius, latStep, longStep, false, particleRed, particleGreen, particleBlue, alpha);
+		GlStateManager.scale(sphereRadius, sphereRadius, sphereRadius);
+
+		CachedMesh.SPHERE_INSIDE.draw(particleRed, particleGreen, particleBlue, alpha);
+		CachedMesh.SPHERE.draw(particleRed, particleGreen, particleBlue, alpha);
 
 		GlStateManager.enableTexture2D();
 		GlStateManager.enableLighting();
@@ -80,52 +76,4 @@ public class ParticleSphere extends ParticleWizardry {
 		return 15728880;
 	}
 
-	/**
-	 * Draws a sphere (using lat/long triangles) with the given parameters.
-	 * @param radius The radius of the sphere.
-	 * @param latStep The latitude step; smaller is smoother but increases performance cost.
-	 * @param longStep The longitude step; smaller is smoother but increases performance cost.
-	 * @param inside Whether to draw the outside or the inside of the sphere.
-	 * @param r The red component of the sphere colour.
-	 * @param g The green component of the sphere colour.
-	 * @param b The blue component of the sphere colour.
-	 * @param a The alpha component of the sphere colour.
-	 */
-	private static void drawSphere(Tessellator tessellator, BufferBuilder buffer, float radius, float latStep, float longStep, boolean inside, float r, float g, float b, float a){
-
-		buffer.begin(GL11.GL_TRIANGLE_STRIP, DefaultVertexFormats.POSITION_COLOR);
-
-		boolean goingUp = inside;
-
-		buffer.pos(0, goingUp ? -radius : radius, 0).color(r, g, b, a).endVertex(); // Start at the north pole
-
-		for(float longitude = -(float)Math.PI; longitude <= (float)Math.PI; longitude += longStep){
-
-			// Leave the poles out since they only have a single point per stack instead of two
-			for(float theta = (float)Math.PI/2 - latStep; theta >= -(float)Math.PI/2 + latStep; theta -= latStep){
-
-				float latitude = goingUp ? -theta : theta;
-
-				float hRadius = radius * MathHelper.cos(latitude);
-				float vy = radius * MathHelper.sin(latitude);
-				float vx = hRadius * MathHelper.sin(longitude);
-				float vz = hRadius * MathHelper.cos(longitude);
-
-				buffer.pos(vx, vy, vz).color(r, g, b, a).endVertex();
-
-				vx = hRadius * MathHelper.sin(longitude + longStep);
-				vz = hRadius * MathHelper.cos(longitude + longStep);
-
-				buffer.pos(vx, vy, vz).color(r, g, b, a).endVertex();
-			}
-
-			// The next pole
-			buffer.pos(0, goingUp ? radius : -radius, 0).color(r, g, b, a).endVertex();
-
-			goingUp = !goingUp;
-		}
-
-		tessellator.draw();
-	}
-
 }
@@ -34,6 +34,15 @@ public abstract class ParticleTargeted extends ParticleWizardry {
 	public ParticleTargeted(World world, double x, double y, double z, ResourceLocation... textures){
 		super(world, x, y, z, textures);
 	}
+
+	@Override
+	protected void reset(World world, double x, double y, double z){
+		super.reset(world, x, y, z);
+		this.targetX = this.targetY = this.targetZ = 0;
+		this.targetVelX = this.targetVelY = this.targetVelZ = 0;
+		this.length = 0;
+		this.target = null;
+	}
 	
 	@Override
 	public void setTargetPosition(double x, double y, double z){
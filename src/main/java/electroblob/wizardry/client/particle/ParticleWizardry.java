@@ -15,13 +15,13 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -46,11 +46,20 @@ import java.util.stream.Collectors;
  * @see electroblob.wizardry.util.ParticleBuilder ParticleBuilder
  */
 //@SideOnly(Side.CLIENT)
+@Mod.EventBusSubscriber(Side.CLIENT)
 public abstract class ParticleWizardry extends Particle {
 
+	/** Cache of the sprites for each array of textures passed into particle constructors, to save looking them up (and
+	 * creating a new array) every time a particle is spawned. Particle classes nearly always pass in the same static
+	 * arrays, but if not the entries will be garbage collected since arrays use identity for equals and hashCode. */
+	private static final Map<ResourceLocation[], TextureAtlasSprite[]> spriteCache = new WeakHashMap<>();
+
 	/** Implementation of animated particles using the TextureAtlasSprite system. Why vanilla doesn't support this I
 	 * don't know, considering it too has animated particles. */
-	protected final TextureAtlasSprite[] sprites;
+	protected TextureAtlasSprite[] sprites;
+
+	/** The type this particle was created as, used to return it to the right {@link ParticlePool} once it expires. */
+	ResourceLocation type;
 
 	/** A long value used by the renderer as a random number seed, ensuring anything that is randomised remains the
 	 * same across multiple frames. For example, lightning particles use this to keep their shape across ticks.
@@ -125,18 +134,116 @@ public abstract class ParticleWizardry extends Particle {
 		this.relativeY = y;
 		this.relativeZ = z;
 		
+		setTextures(textures);
+	}
+
+	/**
+	 * Sets the textures used by this particle. See {@link ParticleWizardry#ParticleWizardry(World, double, double,
+	 * double, ResourceLocation...)} for details. Only needs to be called directly from
+	 * {@link ParticleWizardry#reset(World, double, double, double)}, the constructor calls it automatically.
+	 */
+	protected void setTextures(ResourceLocation... textures){
+
 		// Deals with the textures
 		if(textures.length > 0){
-			
-			sprites = Arrays.stream(textures).map(t -> Minecraft.getMinecraft().getTextureMapBlocks().getAtlasSprite(
-					t.toString())).collect(Collectors.toList()).toArray(new TextureAtlasSprite[0]);
-			
+
+			sprites = spriteCache.computeIfAbsent(textures, k -> Arrays.stream(k).map(t -> Minecraft.getMinecraft()
+					.getTextureMapBlocks().getAtlasSprite(t.toString())).collect(Collectors.toList()).toArray(new TextureAtlasSprite[0]));
+
 			this.setParticleTexture(sprites[0]);
-					
+
 		}else{
 			sprites = new TextureAtlasSprite[0];
 		}
 	}
+
+	// =============================================== Particle Pooling ===============================================
+
+	/**
+	 * Returns true if this particle can be reused once it expires, false if not. Reusable particles must override
+	 * {@link ParticleWizardry#reset(World, double, double, double)} to restore all of their default values. Defaults to
+	 * false, so that particle types which don't support being reset are never pooled. <i>Subclasses of a reusable
+	 * particle must also override {@code reset} if they have any defaults of their own, or override this method to
+	 * return false.</i>
+	 */
+	protected boolean isReusable(){
+		return false;
+	}
+
+	/**
+	 * Returns this particle to the state it was in immediately after construction, at the given position, so it can be
+	 * reused by the {@link ParticlePool}. This resets everything set by {@link Particle} and {@code ParticleWizardry};
+	 * reusable subclasses must call super and then set the same defaults as their constructor, including picking their
+	 * textures again if they are randomised.
+	 */
+	protected void reset(World world, double x, double y, double z){
+
+		// Particle defaults (see its constructor)
+		this.world = world;
+		this.isExpired = false;
+		this.onGround = false;
+		this.canCollide = true;
+		this.setSize(0.2f, 0.2f);
+		this.setPosition(x, y, z);
+		this.prevPosX = x;
+		this.prevPosY = y;
+		this.prevPosZ = z;
+		this.motionX = 0;
+		this.motionY = 0;
+		this.motionZ = 0;
+		this.particleRed = this.particleGreen = this.particleBlue = 1;
+		this.particleAlpha = 1;
+		this.particleTextureJitterX = this.rand.nextFloat() * 3;
+		this.particleTextureJitterY = this.rand.nextFloat() * 3;
+		this.particleScale = (this.rand.nextFloat() * 0.5f + 0.5f) * 2;
+		this.particleMaxAge = (int)(4 / (this.rand.nextFloat() * 0.9f + 0.1f));
+		this.particleAge = 0;
+		this.particleGravity = 0;
+		this.particleAngle = 0;
+		this.prevParticleAngle = 0;
+		this.particleTextureIndexX = 0;
+		this.particleTextureIndexY = 0;
+		this.particleTexture = null;
+
+		// ParticleWizardry defaults
+		this.seed = 0;
+		this.random.setSeed(rand.nextLong());
+		this.shaded = false;
+		this.initialRed = this.initialGreen = this.initialBlue = 0;
+		this.fadeRed = this.fadeGreen = this.fadeBlue = 0;
+		this.angle = 0;
+		this.radius = 0;
+		this.speed = 0;
+		this.entity = null;
+		this.relativeX = x;
+		this.relativeY = y;
+		this.relativeZ = z;
+		this.relativeMotionX = this.relativeMotionY = this.relativeMotionZ = 0;
+		this.yaw = Float.NaN;
+		this.pitch = Float.NaN;
+		this.prevVelX = this.prevVelY = this.prevVelZ = 0;
+
+		this.sprites = new TextureAtlasSprite[0];
+	}
+
+	/** Returns this particle's age in ticks. */
+	int getAge(){
+		return particleAge;
+	}
+
+	@Override
+	public void setExpired(){
+		if(!isExpired){
+			ParticleBudget.onExpired(this);
+			ParticlePool.release(this);
+		}
+		super.setExpired();
+	}
+
+	@SubscribeEvent
+	public static void onTextureStitchEvent(TextureStitchEvent.Pre event){
+		spriteCache.clear(); // Sprites are recreated when the texture map is reloaded
+	}
 	
 	// ============================================== Parameter Setters ==============================================
 	
@@ -0,0 +1,170 @@
+package electroblob.wizardry.client.renderer;
+
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.util.math.MathHelper;
+import org.lwjgl.opengl.GL11;
+
+import java.util.function.Consumer;
+
+/**
+ * A fixed piece of untextured geometry that is uploaded to the GPU once and then drawn as many times as necessary,
+ * rather than being rebuilt in immediate mode every frame. Like vanilla's sky rendering, meshes are stored in a vertex
+ * buffer object if VBOs are enabled and in a display list otherwise, and are rebuilt if that setting changes.
+ * <p></p>
+ * Meshes only contain positions; the colour is set using {@link GlStateManager#color(float, float, float, float)}
+ * and the size, position and orientation using the model-view matrix, so a single unit mesh can be used for
+ * everything of that shape. Meshes are compiled the first time they are drawn, so they can safely be created
+ * statically.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public class CachedMesh {
+
+	/** A sphere of radius 1 centred on the origin, facing outwards. */
+	public static final CachedMesh SPHERE = new CachedMesh(GL11.GL_TRIANGLE_STRIP, b -> buildSphere(b, false));
+	/** A sphere of radius 1 centred on the origin, facing inwards. */
+	public static final CachedMesh SPHERE_INSIDE = new CachedMesh(GL11.GL_TRIANGLE_STRIP, b -> buildSphere(b, true));
+	/** An open-ended square tube from (-1, -1, 0) to (1, 1, 1), i.e. a box of width 2 along the z axis. */
+	public static final CachedMesh BEAM = new CachedMesh(GL11.GL_TRIANGLE_STRIP, CachedMesh::buildBeam);
+
+	/** The latitude and longitude step of the sphere meshes. */
+	private static final float SPHERE_STEP = (float)Math.PI/20;
+
+	private final int mode;
+	private final Consumer<BufferBuilder> geometry;
+
+	private VertexBuffer vertexBuffer;
+	private int displayList = -1;
+
+	/**
+	 * Creates a new cached mesh.
+	 * @param mode The GL drawing mode, e.g. {@link GL11#GL_TRIANGLE_STRIP}
+	 * @param geometry A function that adds the vertices of this mesh to the given buffer, which will already be building
+	 * in the given mode with {@link DefaultVertexFormats#POSITION}
+	 */
+	public CachedMesh(int mode, Consumer<BufferBuilder> geometry){
+		this.mode = mode;
+		this.geometry = geometry;
+	}
+
+	/** Draws this mesh with the current colour and transformations. */
+	public void draw(){
+
+		if(OpenGlHelper.useVbo()){
+
+			if(vertexBuffer == null){
+				delete();
+				compileVbo();
+			}
+
+			vertexBuffer.bindBuffer();
+			GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+			GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, 12, 0);
+			vertexBuffer.drawArrays(mode);
+			vertexBuffer.unbindBuffer();
+			GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+
+		}else{
+
+			if(displayList < 0){
+				delete();
+				compileDisplayList();
+			}
+
+			GlStateManager.callList(displayList);
+		}
+	}
+
+	/** Draws this mesh in the given colour with the current transformations, then resets the colour to white. */
+	public void draw(float r, float g, float b, float a){
+		GlStateManager.color(r, g, b, a);
+		draw();
+		GlStateManager.color(1, 1, 1, 1);
+	}
+
+	/** Frees the GPU memory used by this mesh. It will be compiled again if it is drawn after this. */
+	public void delete(){
+
+		if(vertexBuffer != null){
+			vertexBuffer.deleteGlBuffers();
+			vertexBuffer = null;
+		}
+
+		if(displayList >= 0){
+			GLAllocation.deleteDisplayLists(displayList);
+			displayList = -1;
+		}
+	}
+
+	private void compileVbo(){
+		BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+		buffer.begin(mode, DefaultVertexFormats.POSITION);
+		geometry.accept(buffer);
+		buffer.finishDrawing();
+		buffer.reset();
+		vertexBuffer = new VertexBuffer(DefaultVertexFormats.POSITION);
+		vertexBuffer.bufferData(buffer.getByteBuffer());
+	}
+
+	private void compileDisplayList(){
+		displayList = GLAllocation.generateDisplayLists(1);
+		GlStateManager.glNewList(displayList, GL11.GL_COMPILE);
+		Tessellator tessellator = Tessellator.getInstance();
+		tessellator.getBuffer().begin(mode, DefaultVertexFormats.POSITION);
+		geometry.accept(tessellator.getBuffer());
+		tessellator.draw();
+		GlStateManager.glEndList();
+	}
+
+	// Geometry for the built-in meshes
+
+	/** Adds a unit lat/long sphere as a single triangle strip, facing inwards or outwards. */
+	private static void buildSphere(BufferBuilder buffer, boolean inside){
+
+		boolean goingUp = inside;
+
+		buffer.pos(0, goingUp ? -1 : 1, 0).endVertex(); // Start at the north pole
+
+		for(float longitude = -(float)Math.PI; longitude <= (float)Math.PI; longitude += SPHERE_STEP){
+
+			// Leave the poles out since they only have a single point per stack instead of two
+			for(float theta = (float)Math.PI/2 - SPHERE_STEP; theta >= -(float)Math.PI/2 + SPHERE_STEP; theta -= SPHERE_STEP){
+
+				float latitude = goingUp ? -theta : theta;
+
+				float hRadius = MathHelper.cos(latitude);
+				float vy = MathHelper.sin(latitude);
+
+				buffer.pos(hRadius * MathHelper.sin(longitude), vy, hRadius * MathHelper.cos(longitude)).endVertex();
+				buffer.pos(hRadius * MathHelper.sin(longitude + SPHERE_STEP), vy, hRadius * MathHelper.cos(longitude + SPHERE_STEP)).endVertex();
+			}
+
+			// The next pole
+			buffer.pos(0, goingUp ? 1 : -1, 0).endVertex();
+
+			goingUp = !goingUp;
+		}
+	}
+
+	/** Adds the four sides of a unit beam segment as a single triangle strip. */
+	private static void buildBeam(BufferBuilder buffer){
+		buffer.pos(-1, -1, 0).endVertex();
+		buffer.pos(-1, -1, 1).endVertex();
+		buffer.pos(-1,  1, 0).endVertex();
+		buffer.pos(-1,  1, 1).endVertex();
+		buffer.pos( 1,  1, 0).endVertex();
+		buffer.pos( 1,  1, 1).endVertex();
+		buffer.pos( 1, -1, 0).endVertex();
+		buffer.pos( 1, -1, 1).endVertex();
+		buffer.pos(-1, -1, 0).endVertex();
+		buffer.pos(-1, -1, 1).endVertex();
+	}
+
+}
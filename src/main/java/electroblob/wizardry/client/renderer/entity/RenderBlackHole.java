@@ -3,13 +3,17 @@ package electroblob.wizardry.client.renderer.entity;
 import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.client.DrawingUtils;
 import electroblob.wizardry.client.renderer.RayHelper;
+import electroblob.wizardry.entity.construct.DebrisCloud;
 import electroblob.wizardry.entity.construct.EntityBlackHole;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.*;
 import net.minecraft.client.renderer.entity.Render;
 import net.minecraft.client.renderer.entity.RenderManager;
+import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.util.EnumBlockRenderType;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import org.lwjgl.opengl.GL11;
 
@@ -31,6 +35,8 @@ public class RenderBlackHole extends Render<EntityBlackHole> {
 	@Override
 	public void doRender(EntityBlackHole entity, double x, double y, double z, float entityYaw, float partialTicks){
 
+		if(!entity.getDebris().isEmpty()) renderDebris(entity, x, y, z, partialTicks);
+
 		GlStateManager.pushMatrix();
 
 		GlStateManager.disableCull();
@@ -159,6 +165,47 @@ public class RenderBlackHole extends Render<EntityBlackHole> {
 		GlStateManager.popMatrix();
 	}
 
+	/** Renders all the blocks in the given black hole's debris cloud in a single draw call, in the same way as
+	 * {@link net.minecraft.client.renderer.entity.RenderFallingBlock} renders each individual falling block. */
+	private void renderDebris(EntityBlackHole entity, double x, double y, double z, float partialTicks){
+
+		this.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+
+		GlStateManager.disableLighting();
+
+		Tessellator tessellator = Tessellator.getInstance();
+		BufferBuilder buffer = tessellator.getBuffer();
+		BlockRendererDispatcher dispatcher = Minecraft.getMinecraft().getBlockRendererDispatcher();
+
+		// Offset from world coordinates to render coordinates
+		double dx = x - (entity.lastTickPosX + (entity.posX - entity.lastTickPosX) * partialTicks);
+		double dy = y - (entity.lastTickPosY + (entity.posY - entity.lastTickPosY) * partialTicks);
+		double dz = z - (entity.lastTickPosZ + (entity.posZ - entity.lastTickPosZ) * partialTicks);
+
+		buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.BLOCK);
+
+		for(DebrisCloud.Piece piece : entity.getDebris()){
+
+			if(piece.state.getRenderType() != EnumBlockRenderType.MODEL) continue;
+
+			double px = piece.prevX + (piece.x - piece.prevX) * partialTicks;
+			double py = piece.prevY + (piece.y - piece.prevY) * partialTicks;
+			double pz = piece.prevZ + (piece.z - piece.prevZ) * partialTicks;
+
+			// The model is rendered at this position, so it's also where the lighting comes from
+			BlockPos pos = new BlockPos(px, py + 0.5, pz);
+
+			buffer.setTranslation(px - 0.5 - pos.getX() + dx, py - pos.getY() + dy, pz - 0.5 - pos.getZ() + dz);
+			dispatcher.getBlockModelRenderer().renderModel(entity.world, dispatcher.getModelForState(piece.state),
+					piece.state, pos, buffer, false, MathHelper.getPositionRandom(pos));
+		}
+
+		buffer.setTranslation(0, 0, 0);
+		tessellator.draw();
+
+		GlStateManager.enableLighting();
+	}
+
 	@Override
 	protected ResourceLocation getEntityTexture(EntityBlackHole entity){
 		return RAY_TEXTURE;
@@ -9,24 +9,31 @@ import electroblob.wizardry.registry.WizardryItems;
 import electroblob.wizardry.registry.WizardryPotions;
 import electroblob.wizardry.spell.Spell;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ActiveRenderInfo;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.Tessellator;
-import net.minecraft.client.renderer.entity.RenderManager;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.item.EntityArmorStand;
 import net.minecraft.entity.monster.IMob;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.client.event.RenderLivingEvent;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import org.lwjgl.opengl.GL11;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 @EventBusSubscriber(Side.CLIENT)
 public class RenderSixthSense {
 
@@ -36,6 +43,18 @@ public class RenderSixthSense {
 	private static final ResourceLocation HOSTILE_MOB_MARKER_TEXTURE = 	new ResourceLocation(Wizardry.MODID, "textures/gui/sixth_sense_marker_hostile.png");
 	private static final ResourceLocation PLAYER_MARKER_TEXTURE = 		new ResourceLocation(Wizardry.MODID, "textures/gui/sixth_sense_marker_player.png");
 
+	/** The maximum number of entity markers drawn at once. If there are more entities than this in range, only the
+	 * nearest ones get markers. */
+	private static final int MAX_MARKERS = 64;
+	/** Half the width of each entity marker. */
+	private static final float MARKER_SIZE = 0.6f;
+	/** The opacity of entity markers at the edge of the spell's range. */
+	private static final float MIN_ALPHA = 0.2f;
+
+	/** The entity markers to be drawn this frame. Rather than drawing each marker as its entity is rendered, they
+	 * are collected and all drawn at the end, which means the GL state only needs setting up once. */
+	private static final List<Marker> markers = new ArrayList<>();
+
 	@SubscribeEvent
 	public static void onRenderGameOverlayEvent(RenderGameOverlayEvent.Post event){
 
@@ -55,39 +74,26 @@ public class RenderSixthSense {
 		}
 	}
 
+	@SubscribeEvent
+	public static void onRenderTickEvent(TickEvent.RenderTickEvent event){
+		// Markers are collected afresh each frame
+		if(event.phase == TickEvent.Phase.START) markers.clear();
+	}
+
 	@SubscribeEvent
 	public static void onRenderLivingEvent(RenderLivingEvent.Post<EntityLivingBase> event){
 
 		Minecraft mc = Minecraft.getMinecraft();
-		RenderManager renderManager = event.getRenderer().getRenderManager();
 
-		if(mc.player.isPotionActive(WizardryPotions.sixth_sense) && !(event.getEntity() instanceof EntityArmorStand)
-				&& event.getEntity() != mc.player && mc.player.getActivePotionEffect(WizardryPotions.sixth_sense) != null
-				&& event.getEntity().getDistance(mc.player) < Spells.sixth_sense.getProperty(Spell.EFFECT_RADIUS).floatValue()
-				* (1 + mc.player.getActivePotionEffect(WizardryPotions.sixth_sense).getAmplifier() * Constants.RANGE_INCREASE_PER_LEVEL)){
+		if(!mc.player.isPotionActive(WizardryPotions.sixth_sense) || event.getEntity() instanceof EntityArmorStand
+				|| event.getEntity() == mc.player || mc.player.getActivePotionEffect(WizardryPotions.sixth_sense) == null) return;
 
-			Tessellator tessellator = Tessellator.getInstance();
-			BufferBuilder buffer = tessellator.getBuffer();
+		float range = Spells.sixth_sense.getProperty(Spell.EFFECT_RADIUS).floatValue()
+				* (1 + mc.player.getActivePotionEffect(WizardryPotions.sixth_sense).getAmplifier() * Constants.RANGE_INCREASE_PER_LEVEL);
 
-			GlStateManager.pushMatrix();
+		float distance = event.getEntity().getDistance(mc.player);
 
-			GlStateManager.disableCull();
-			GlStateManager.enableBlend();
-			GlStateManager.disableLighting();
-			OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, 240f, 240f);
-			GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-			// Disabling depth test allows it to be seen through everything.
-			GlStateManager.disableDepth();
-
-			GlStateManager.translate(event.getX(), event.getY() + event.getEntity().height * 0.6, event.getZ());
-
-			// This counteracts the reverse rotation behaviour when in front f5 view.
-			// Fun fact: this is a bug with vanilla too! Look at a snowball in front f5 view, for example.
-			float yaw = mc.gameSettings.thirdPersonView == 2 ? renderManager.playerViewX : -renderManager.playerViewX;
-			GlStateManager.rotate(180 - renderManager.playerViewY, 0.0F, 1.0F, 0.0F);
-			GlStateManager.rotate(yaw, 1.0F, 0.0F, 0.0F);
-
-			GlStateManager.color(1, 1, 1, 1);
+		if(distance < range){
 
 			ResourceLocation texture = PASSIVE_MOB_MARKER_TEXTURE;
 
@@ -96,25 +102,96 @@ public class RenderSixthSense {
 				else if(event.getEntity() instanceof EntityPlayer) texture = PLAYER_MARKER_TEXTURE;
 			}
 
-			mc.renderEngine.bindTexture(texture);
+			// Fades out linearly from halfway to the edge of the range
+			float alpha = 1 - (1 - MIN_ALPHA) * MathHelper.clamp((distance / range - 0.5f) * 2, 0, 1);
+
+			markers.add(new Marker(texture, event.getX(), event.getY() + event.getEntity().height * 0.6, event.getZ(),
+					distance, alpha));
+		}
+	}
+
+	@SubscribeEvent
+	public static void onRenderWorldLastEvent(RenderWorldLastEvent event){
 
-			buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+		if(markers.isEmpty()) return;
 
-			buffer.pos(-0.6, 0.6, 0).tex(0, 0).endVertex();
-			buffer.pos(0.6, 0.6, 0).tex(1, 0).endVertex();
-			buffer.pos(0.6, -0.6, 0).tex(1, 1).endVertex();
-			buffer.pos(-0.6, -0.6, 0).tex(0, 1).endVertex();
+		// Only the nearest markers are drawn, grouped by texture so each texture is only bound once, and furthest
+		// first within each texture so they overlap properly
+		markers.sort(Comparator.comparingDouble(m -> m.distance));
+		List<Marker> visible = markers.subList(0, Math.min(markers.size(), MAX_MARKERS));
+		visible.sort(Comparator.comparing((Marker m) -> m.texture.toString())
+				.thenComparing(Comparator.comparingDouble((Marker m) -> m.distance).reversed()));
 
-			tessellator.draw();
+		Minecraft mc = Minecraft.getMinecraft();
+		Tessellator tessellator = Tessellator.getInstance();
+		BufferBuilder buffer = tessellator.getBuffer();
+
+		GlStateManager.pushMatrix();
+
+		GlStateManager.disableCull();
+		GlStateManager.enableBlend();
+		GlStateManager.disableLighting();
+		OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, 240f, 240f);
+		GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		// Disabling depth test allows it to be seen through everything.
+		GlStateManager.disableDepth();
+		GlStateManager.color(1, 1, 1, 1);
+
+		// Markers face the camera in the same way as particles
+		float rotationX = ActiveRenderInfo.getRotationX();
+		float rotationZ = ActiveRenderInfo.getRotationZ();
+		float rotationYZ = ActiveRenderInfo.getRotationYZ();
+		float rotationXY = ActiveRenderInfo.getRotationXY();
+		float rotationXZ = ActiveRenderInfo.getRotationXZ();
+
+		ResourceLocation texture = null;
+
+		for(Marker marker : visible){
+
+			if(marker.texture != texture){
+				if(texture != null) tessellator.draw();
+				texture = marker.texture;
+				mc.renderEngine.bindTexture(texture);
+				buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+			}
 
-			GlStateManager.enableCull();
-			GlStateManager.disableBlend();
-			GlStateManager.enableLighting();
-			GlStateManager.enableDepth();
+			double x = marker.x, y = marker.y, z = marker.z;
+			float s = MARKER_SIZE, a = marker.alpha;
 
-			GlStateManager.popMatrix();
+			buffer.pos(x - rotationX * s - rotationXY * s, y - rotationZ * s, z - rotationYZ * s - rotationXZ * s).tex(1, 1).color(1, 1, 1, a).endVertex();
+			buffer.pos(x - rotationX * s + rotationXY * s, y + rotationZ * s, z - rotationYZ * s + rotationXZ * s).tex(1, 0).color(1, 1, 1, a).endVertex();
+			buffer.pos(x + rotationX * s + rotationXY * s, y + rotationZ * s, z + rotationYZ * s + rotationXZ * s).tex(0, 0).color(1, 1, 1, a).endVertex();
+			buffer.pos(x + rotationX * s - rotationXY * s, y - rotationZ * s, z + rotationYZ * s - rotationXZ * s).tex(0, 1).color(1, 1, 1, a).endVertex();
 		}
 
+		tessellator.draw();
+
+		GlStateManager.enableCull();
+		GlStateManager.disableBlend();
+		GlStateManager.enableLighting();
+		GlStateManager.enableDepth();
+
+		GlStateManager.popMatrix();
+
+		markers.clear();
+	}
+
+	/** A single entity marker to be drawn this frame. Positions are relative to the camera. */
+	private static class Marker {
+
+		private final ResourceLocation texture;
+		private final double x, y, z;
+		private final float distance;
+		private final float alpha;
+
+		private Marker(ResourceLocation texture, double x, double y, double z, float distance, float alpha){
+			this.texture = texture;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.distance = distance;
+			this.alpha = alpha;
+		}
 	}
 
 }
@@ -19,6 +19,7 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraftforge.client.event.RenderLivingEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import org.lwjgl.opengl.GL11;
 
@@ -28,6 +29,20 @@ public class RenderTargetPointers {
 	private static final ResourceLocation POINTER_TEXTURE = new ResourceLocation(Wizardry.MODID, "textures/gui/pointer.png");
 	private static final ResourceLocation TARGET_POINTER_TEXTURE = new ResourceLocation(Wizardry.MODID, "textures/gui/target_pointer.png");
 
+	/** The result of this frame's target selection ray trace, or null if it hasn't been done yet this frame. */
+	private static RayTraceResult rayTrace;
+	/** Whether the target selection ray trace has been done this frame (the result itself may be null). */
+	private static boolean rayTraced;
+
+	@SubscribeEvent
+	public static void onRenderTickEvent(TickEvent.RenderTickEvent event){
+		// The ray trace is done afresh each frame
+		if(event.phase == TickEvent.Phase.START){
+			rayTrace = null;
+			rayTraced = false;
+		}
+	}
+
 	@SubscribeEvent
 	public static void onRenderLivingEvent(RenderLivingEvent.Post<EntityLivingBase> event){
 
@@ -46,7 +61,11 @@ public class RenderTargetPointers {
 				&& data != null && data.selectedMinion != null){
 
 			// -> Moved this in here so it isn't called every tick
-			RayTraceResult rayTrace = RayTracer.standardEntityRayTrace(mc.world, mc.player, 16, false);
+			// Called for every rendered entity, but only needs doing once per frame
+			if(!rayTraced){
+				rayTrace = RayTracer.standardEntityRayTrace(mc.world, mc.player, 16, false);
+				rayTraced = true;
+			}
 
 			if(rayTrace != null && rayTrace.entityHit == event.getEntity()){
 
@@ -1,25 +1,41 @@
 package electroblob.wizardry.client.renderer.tileentity;
 
 import electroblob.wizardry.Wizardry;
-import electroblob.wizardry.spell.ArcaneLock;
 import electroblob.wizardry.util.GeometryUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import org.lwjgl.opengl.GL11;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Renders the arcane lock overlay on locked blocks. Which blocks are locked is synced from the server per chunk (see
+ * {@link electroblob.wizardry.packet.PacketArcaneLock PacketArcaneLock}), so only those blocks need to be looked at
+ * each frame rather than every loaded tile entity. All the overlays are drawn in a single batch.
+ */
 @Mod.EventBusSubscriber(Side.CLIENT)
 public class RenderArcaneLock {
 
@@ -31,28 +47,75 @@ public class RenderArcaneLock {
 		}
 	}
 
+	/** Map of chunk positions to the arcane-locked blocks in that chunk, as synced from the server. Only the
+	 * chunks the client has loaded are stored. */
+	private static final Long2ObjectMap<Set<BlockPos>> lockedBlocks = new Long2ObjectOpenHashMap<>();
+
+	/** Removes all the arcane-locked blocks in the given chunk. */
+	public static void clearChunk(int chunkX, int chunkZ){
+		lockedBlocks.remove(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	/** Sets whether the block at the given position is arcane-locked. */
+	public static void setLocked(BlockPos pos, boolean locked){
+
+		long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+
+		if(locked){
+			lockedBlocks.computeIfAbsent(key, k -> new HashSet<>()).add(pos);
+		}else{
+			Set<BlockPos> positions = lockedBlocks.get(key);
+			if(positions != null){
+				positions.remove(pos);
+				if(positions.isEmpty()) lockedBlocks.remove(key);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkUnloadEvent(ChunkEvent.Unload event){
+		if(event.getWorld().isRemote) clearChunk(event.getChunk().x, event.getChunk().z);
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnloadEvent(WorldEvent.Unload event){
+		if(event.getWorld().isRemote) lockedBlocks.clear();
+	}
+
 	@SubscribeEvent
 	public static void onRenderWorldLastEvent(RenderWorldLastEvent event){
 
+		if(lockedBlocks.isEmpty()) return;
+
 		EntityPlayer player = Minecraft.getMinecraft().player;
 		World world = Minecraft.getMinecraft().world;
 		Vec3d origin = player.getPositionEyes(event.getPartialTicks());
 		Tessellator tessellator = Tessellator.getInstance();
 		BufferBuilder buffer = tessellator.getBuffer();
 
+		Frustum frustum = new Frustum();
+		frustum.setPosition(origin.x, origin.y - player.getEyeHeight(), origin.z);
+
 		boolean flag = false;
 		boolean lighting = false;
 
-		// Someone managed to get a CME here so let's iterate manually to be safe (don't copy the list, it's expensive!)
-		// It's only cosmetic so if a tileentity somehow gets removed while we're rendering them it's not a big deal
-		for(int i=0; i<world.loadedTileEntityList.size(); i++){
+		for(Set<BlockPos> positions : lockedBlocks.values()){
+
+			for(Iterator<BlockPos> iterator = positions.iterator(); iterator.hasNext();){
+
+				BlockPos pos = iterator.next();
+				TileEntity tileentity = world.getTileEntity(pos);
+
+				if(tileentity == null){
+					iterator.remove(); // The block was broken, so it can't be locked any more
+					continue;
+				}
 
-			TileEntity tileentity = world.loadedTileEntityList.get(i);
+				if(tileentity.getDistanceSq(origin.x, origin.y, origin.z) > tileentity.getMaxRenderDistanceSquared()) continue;
 
-			if(tileentity == null) continue; // What the heck VoxelMap
+				AxisAlignedBB box = world.getBlockState(pos).getBoundingBox(world, pos).grow(0.05).offset(pos);
 
-			if(tileentity.getDistanceSq(origin.x, origin.y, origin.z) <= tileentity.getMaxRenderDistanceSquared()
-					&& tileentity.getTileData().hasUniqueId(ArcaneLock.NBT_KEY)){
+				if(!frustum.isBoundingBoxInFrustum(box)) continue;
 
 				if(!flag){
 
@@ -74,7 +137,7 @@ public class RenderArcaneLock {
 					buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
 				}
 
-				Vec3d[] vertices = GeometryUtils.getVertices(world.getBlockState(tileentity.getPos()).getBoundingBox(world, tileentity.getPos()).grow(0.05).offset(tileentity.getPos()));
+				Vec3d[] vertices = GeometryUtils.getVertices(box);
 
 				drawFace(buffer, vertices[0], vertices[1], vertices[3], vertices[2], 0, 0, 1, 1); // Bottom
 				drawFace(buffer, vertices[6], vertices[7], vertices[2], vertices[3], 0, 0, 1, 1); // South
@@ -0,0 +1,89 @@
+package electroblob.wizardry.command;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.worldgen.StructureSearch;
+import electroblob.wizardry.worldgen.WorldGenWizardryStructure;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+public class CommandLocateStructure extends CommandBase {
+
+	@Override
+	public String getName(){
+		return Wizardry.settings.locateCommandName;
+	}
+
+	@Override
+	public int getRequiredPermissionLevel(){
+		return 2;
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender){
+		// Not ideal, but the way this is implemented means I have no choice. Only used in the help command, so in there
+		// the custom command name will not display.
+		return "commands." + Wizardry.MODID + ":locate.usage";
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] arguments,
+			BlockPos pos){
+		switch(arguments.length){
+		case 1:
+			return getListOfStringsMatchingLastWord(arguments, WorldGenWizardryStructure.getStructureNames());
+		case 2:
+			return getListOfStringsMatchingLastWord(arguments, "true", "false");
+		}
+		return super.getTabCompletions(server, sender, arguments, pos);
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] arguments) throws CommandException{
+
+		if(arguments.length < 1){
+			throw new WrongUsageException("commands." + Wizardry.MODID + ":locate.usage", Wizardry.settings.locateCommandName);
+		}
+
+		WorldGenWizardryStructure generator = WorldGenWizardryStructure.byName(arguments[0]);
+
+		if(generator == null){
+			throw new CommandException("commands." + Wizardry.MODID + ":locate.not_found", arguments[0]);
+		}
+
+		boolean findUnexplored = arguments.length > 1 && parseBoolean(arguments[1]);
+
+		Entity entity = sender.getCommandSenderEntity();
+		EntityPlayer requester = entity instanceof EntityPlayer ? (EntityPlayer)entity : null;
+
+		sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":locate.searching", arguments[0]));
+
+		// The search runs on another thread so it doesn't freeze the server, so the result gets sent when it's done
+		generator.findNearestStructurePos(sender.getEntityWorld(), sender.getPosition(), findUnexplored, requester,
+				rings -> { if(rings > 0) sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":locate.progress", rings)); }
+		).whenComplete((pos, throwable) -> {
+
+			if(throwable instanceof CancellationException) return; // Requester logged out or the world was unloaded
+
+			if(throwable != null){
+				sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":locate.error", arguments[0]));
+			}else if(pos == null){
+				sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":locate.failure",
+						arguments[0], StructureSearch.MAX_RADIUS));
+			}else{
+				sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":locate.success",
+						arguments[0], pos.getX(), pos.getZ()));
+			}
+		});
+	}
+
+}
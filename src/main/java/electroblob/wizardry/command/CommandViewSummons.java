@@ -0,0 +1,82 @@
+package electroblob.wizardry.command;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.util.SummonBudget;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class CommandViewSummons extends CommandBase {
+
+	@Override
+	public String getName(){
+		return Wizardry.settings.summonsCommandName;
+	}
+
+	@Override
+	public int getRequiredPermissionLevel(){
+		return 2;
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender){
+		// Not ideal, but the way this is implemented means I have no choice. Only used in the help command, so in there
+		// the custom command name will not display.
+		return "commands." + Wizardry.MODID + ":summons.usage";
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] arguments,
+			BlockPos pos){
+		switch(arguments.length){
+		case 1:
+			return getListOfStringsMatchingLastWord(arguments, server.getOnlinePlayerNames());
+		}
+		return super.getTabCompletions(server, sender, arguments, pos);
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] arguments) throws CommandException{
+
+		if(arguments.length > 0){
+
+			EntityPlayerMP player = getPlayer(server, sender, arguments[0]);
+
+			int count = SummonBudget.countByOwner(player.world).getOrDefault(player.getUniqueID(), 0);
+
+			sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":summons.player",
+					player.getName(), count, formatLimit(Wizardry.settings.summonLimitPerPlayer)));
+
+		}else{
+
+			World world = sender.getEntityWorld();
+
+			sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":summons.dimension",
+					world.provider.getDimension(), SummonBudget.getSummonedCreatures(world).size(),
+					formatLimit(Wizardry.settings.summonLimitPerDimension)));
+
+			for(Map.Entry<UUID, Integer> entry : SummonBudget.countByOwner(world).entrySet()){
+				// Owners may well be NPCs or offline players, in which case we'll have to make do with the UUID
+				EntityPlayer owner = server.getPlayerList().getPlayerByUUID(entry.getKey());
+				sender.sendMessage(new TextComponentTranslation("commands." + Wizardry.MODID + ":summons.player",
+						owner == null ? entry.getKey().toString() : owner.getName(), entry.getValue(),
+						formatLimit(Wizardry.settings.summonLimitPerPlayer)));
+			}
+		}
+	}
+
+	private static Object formatLimit(int limit){
+		return limit == SummonBudget.UNLIMITED ? new TextComponentTranslation("commands." + Wizardry.MODID + ":summons.unlimited") : limit;
+	}
+
+}
@@ -10,6 +10,7 @@ import io.netty.buffer.ByteBuf;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 
@@ -47,11 +48,26 @@ public class SpellEmitter implements ITickable {
 		this.needsRemoving = true;
 	}
 
+	/** Returns the number of ticks this spell emitter has been casting for. */
+	public int getCastingTick(){
+		return castingTick;
+	}
+
 	/** Returns whether this spell emitter is marked for removal. */
 	public boolean needsRemoving(){
 		return needsRemoving;
 	}
 
+	/** Returns the x-coordinate of the chunk this spell emitter is in. */
+	public int getChunkX(){
+		return MathHelper.floor(x) >> 4;
+	}
+
+	/** Returns the z-coordinate of the chunk this spell emitter is in. */
+	public int getChunkZ(){
+		return MathHelper.floor(z) >> 4;
+	}
+
 	/** Returns the {@link SpellCastEvent.Source} that should be used for events fired by this spell emitter. */
 	protected SpellCastEvent.Source getSource(){
 		return SpellCastEvent.Source.COMMAND;
@@ -7,10 +7,14 @@ import electroblob.wizardry.packet.WizardryPacketHandler;
 import electroblob.wizardry.spell.Spell;
 import electroblob.wizardry.util.NBTExtras;
 import electroblob.wizardry.util.SpellModifiers;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants;
@@ -21,6 +25,7 @@ import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -28,6 +33,10 @@ import java.util.List;
  * {@code SpellEmitterData} which can be retrieved using {@link SpellEmitterData#get(World)}.<br>
  * <br>
  * To add a new {@code SpellEmitter}, use {@link SpellEmitter#add(Spell, World, double, double, double, EnumFacing, int, SpellModifiers)}.
+ * <br><br>
+ * Emitters are grouped by the chunk they are in, and only emitters in loaded chunks are updated; emitters in unloaded
+ * chunks are effectively suspended until their chunk loads again. The data is only marked dirty when an emitter is
+ * added, removed or updated, so worlds with emitters in unloaded chunks don't rewrite them on every save.
  *
  * @since Wizardry 4.2
  * @author Electroblob
@@ -37,7 +46,8 @@ public class SpellEmitterData extends WorldSavedData {
 
 	public static final String NAME = Wizardry.MODID + "_spell_emitters";
 
-	private final List<SpellEmitter> emitters = new ArrayList<>();
+	/** Map of chunk positions to the spell emitters in that chunk. */
+	private final Long2ObjectMap<List<SpellEmitter>> emitters = new Long2ObjectOpenHashMap<>();
 
 	private NBTTagList emitterTags = null;
 
@@ -67,17 +77,24 @@ public class SpellEmitterData extends WorldSavedData {
 
 	/** Sends the active spell emitters for this world to the specified player's client. */
 	public void sync(EntityPlayerMP player){
-		PacketEmitterData.Message msg = new PacketEmitterData.Message(emitters);
+		PacketEmitterData.Message msg = new PacketEmitterData.Message(getEmitters());
 		WizardryPacketHandler.net.sendTo(msg, player);
 		Wizardry.logger.info("Synchronising spell emitters for " + player.getName());
 	}
 
 	/** Adds the given {@link SpellEmitter} to the list of emitters for this {@code SpellEmitterData}. */
 	public void add(SpellEmitter emitter){
-		emitters.add(emitter);
+		emitters.computeIfAbsent(ChunkPos.asLong(emitter.getChunkX(), emitter.getChunkZ()), k -> new ArrayList<>()).add(emitter);
 		markDirty();
 	}
 
+	/** Returns a list of all the spell emitters in this {@code SpellEmitterData}, whether their chunks are loaded or not. */
+	public List<SpellEmitter> getEmitters(){
+		List<SpellEmitter> list = new ArrayList<>();
+		emitters.values().forEach(list::addAll);
+		return list;
+	}
+
 	@Override
 	public void readFromNBT(NBTTagCompound nbt){
 		emitterTags = nbt.getTagList("emitters", Constants.NBT.TAG_COMPOUND);
@@ -85,23 +102,45 @@ public class SpellEmitterData extends WorldSavedData {
 
 	private void loadEmitters(World world){
 		emitters.clear();
-		emitters.addAll(NBTExtras.NBTToList(emitterTags, (NBTTagCompound t) -> SpellEmitter.fromNBT(world, t)));
+		NBTExtras.NBTToList(emitterTags, (NBTTagCompound t) -> SpellEmitter.fromNBT(world, t)).forEach(this::add);
 		emitterTags = null; // Now we know it's loaded
 	}
 
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound compound){
-		NBTExtras.storeTagSafely(compound, "emitters", NBTExtras.listToNBT(emitters, SpellEmitter::toNBT));
+		NBTExtras.storeTagSafely(compound, "emitters", NBTExtras.listToNBT(getEmitters(), SpellEmitter::toNBT));
 		return compound;
 	}
 
 	public static void update(World world){
+
 		SpellEmitterData data = SpellEmitterData.get(world);
-		if(!data.emitters.isEmpty()){
-			data.emitters.forEach(SpellEmitter::update);
-			data.emitters.removeIf(SpellEmitter::needsRemoving);
-			data.markDirty(); // Mark dirty if there are changes to be saved
+
+		if(data.emitters.isEmpty()) return;
+
+		boolean changed = false;
+
+		for(Iterator<Long2ObjectMap.Entry<List<SpellEmitter>>> iterator = data.emitters.long2ObjectEntrySet().iterator(); iterator.hasNext();){
+
+			Long2ObjectMap.Entry<List<SpellEmitter>> entry = iterator.next();
+			long chunk = entry.getLongKey();
+
+			// Emitters in unloaded chunks stay exactly as they are until the chunk is loaded again
+			// Don't use getLoadedChunk here, on the server it cancels any pending unload so the chunk would never unload
+			if(!world.isBlockLoaded(new BlockPos((int)chunk << 4, 0, (int)(chunk >> 32) << 4), false)) continue;
+
+			for(SpellEmitter emitter : entry.getValue()){
+				int castingTick = emitter.getCastingTick();
+				emitter.update();
+				// The casting tick is the only part of an emitter that changes and gets saved
+				if(emitter.getCastingTick() != castingTick) changed = true;
+			}
+
+			if(entry.getValue().removeIf(SpellEmitter::needsRemoving)) changed = true;
+			if(entry.getValue().isEmpty()) iterator.remove();
 		}
+
+		if(changed) data.markDirty(); // Only mark dirty if there are changes to be saved
 	}
 
 	@SubscribeEvent
@@ -0,0 +1,158 @@
+package electroblob.wizardry.data;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.util.NBTExtras;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Class responsible for storing which blocks belong to which wizard's tower. Each world has its own instance of
+ * {@code WizardTowerData} which can be retrieved using {@link WizardTowerData#get(World)}.
+ * <p></p>
+ * Tower blocks are stored per 16x16x16 chunk section, as a bitset of the 4096 positions in that section for each wizard
+ * that owns blocks in it. This means finding the owner of a block is a single map lookup (plus a bit test for each
+ * tower in that section, of which there is almost always one at most), and a whole tower only takes a few kilobytes
+ * to save regardless of how many blocks it has.
+ *
+ * @since Wizardry 4.3
+ * @author Electroblob
+ */
+public class WizardTowerData extends WorldSavedData {
+
+	public static final String NAME = Wizardry.MODID + "_wizard_towers";
+
+	/** Map of packed chunk section positions to the tower blocks in that section for each wizard. */
+	private final Long2ObjectMap<Map<UUID, BitSet>> sections = new Long2ObjectOpenHashMap<>();
+
+	// Required constructors
+	public WizardTowerData(){
+		this(NAME);
+	}
+
+	public WizardTowerData(String name){
+		super(name);
+	}
+
+	/** Returns the wizard tower data for this world, or creates a new instance if it doesn't exist yet. */
+	public static WizardTowerData get(World world){
+
+		WizardTowerData instance = (WizardTowerData)world.getPerWorldStorage().getOrLoadData(WizardTowerData.class, NAME);
+
+		if(instance == null){
+			instance = new WizardTowerData();
+			world.getPerWorldStorage().setData(NAME, instance);
+		}
+
+		return instance;
+	}
+
+	/** Marks the given blocks as belonging to the tower of the wizard with the given UUID. */
+	public void addTowerBlocks(UUID owner, Collection<BlockPos> blocks){
+		for(BlockPos pos : blocks){
+			sections.computeIfAbsent(getSectionKey(pos), k -> new HashMap<>(1))
+					.computeIfAbsent(owner, k -> new BitSet(4096)).set(getIndexInSection(pos));
+		}
+		markDirty();
+	}
+
+	/** Removes all the tower blocks belonging to the wizard with the given UUID. */
+	public void removeTower(UUID owner){
+
+		boolean changed = false;
+
+		for(Iterator<Map<UUID, BitSet>> iterator = sections.values().iterator(); iterator.hasNext();){
+			Map<UUID, BitSet> towers = iterator.next();
+			if(towers.remove(owner) != null) changed = true;
+			if(towers.isEmpty()) iterator.remove();
+		}
+
+		if(changed) markDirty();
+	}
+
+	/** Returns the UUID of the wizard whose tower the given block belongs to, or null if it isn't part of a tower. */
+	@Nullable
+	public UUID getOwner(BlockPos pos){
+
+		Map<UUID, BitSet> towers = sections.get(getSectionKey(pos));
+		if(towers == null) return null;
+
+		int index = getIndexInSection(pos);
+
+		for(Map.Entry<UUID, BitSet> entry : towers.entrySet()){
+			if(entry.getValue().get(index)) return entry.getKey();
+		}
+
+		return null;
+	}
+
+	private static long getSectionKey(BlockPos pos){
+		// Same packing as BlockPos#toLong, but with section coordinates
+		return new BlockPos(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4).toLong();
+	}
+
+	private static int getIndexInSection(BlockPos pos){
+		return (pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+	}
+
+	@Override
+	public void readFromNBT(NBTTagCompound nbt){
+
+		sections.clear();
+
+		NBTTagList tagList = nbt.getTagList("sections", Constants.NBT.TAG_COMPOUND);
+
+		for(int i = 0; i < tagList.tagCount(); i++){
+			NBTTagCompound tag = tagList.getCompoundTagAt(i);
+			sections.computeIfAbsent(tag.getLong("pos"), k -> new HashMap<>(1))
+					.put(tag.getUniqueId("owner"), BitSet.valueOf(toLongArray(tag.getIntArray("blocks"))));
+		}
+	}
+
+	@Override
+	public NBTTagCompound writeToNBT(NBTTagCompound nbt){
+
+		NBTTagList tagList = new NBTTagList();
+
+		for(Long2ObjectMap.Entry<Map<UUID, BitSet>> section : sections.long2ObjectEntrySet()){
+			for(Map.Entry<UUID, BitSet> tower : section.getValue().entrySet()){
+				NBTTagCompound tag = new NBTTagCompound();
+				tag.setLong("pos", section.getLongKey());
+				tag.setUniqueId("owner", tower.getKey());
+				tag.setIntArray("blocks", toIntArray(tower.getValue().toLongArray()));
+				tagList.appendTag(tag);
+			}
+		}
+
+		NBTExtras.storeTagSafely(nbt, "sections", tagList);
+		return nbt;
+	}
+
+	// There's no way of reading long arrays from NBT in 1.12, so they get split into pairs of ints instead
+
+	private static int[] toIntArray(long[] longs){
+		int[] ints = new int[longs.length * 2];
+		for(int i = 0; i < longs.length; i++){
+			ints[i * 2] = (int)(longs[i] >>> 32);
+			ints[i * 2 + 1] = (int)longs[i];
+		}
+		return ints;
+	}
+
+	private static long[] toLongArray(int[] ints){
+		long[] longs = new long[ints.length / 2];
+		for(int i = 0; i < longs.length; i++){
+			longs[i] = (long)ints[i * 2] << 32 | ints[i * 2 + 1] & 0xffffffffL;
+		}
+		return longs;
+	}
+
+}
@@ -0,0 +1,243 @@
+package electroblob.wizardry.entity.construct;
+
+import electroblob.wizardry.util.NBTExtras;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockFalling;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A cloud of blocks that have been lifted out of the world and are being pulled towards a single point, as used by the
+ * black hole. Rather than each block being its own falling block entity (with its own tracking, collision and spawn
+ * packet), the whole cloud belongs to the entity pulling it in and is just a list of block states and positions.
+ * <p></p>
+ * The movement of the blocks only depends on the position of the entity pulling them in, so it is simulated
+ * independently on both sides. The only things that need syncing are the blocks that get added, which are sent all at
+ * once each tick, and the contents of the cloud when a client first starts tracking the owning entity.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public class DebrisCloud implements Iterable<DebrisCloud.Piece> {
+
+	/** The amount each piece's velocity is changed by each tick, in each direction. Same as the black hole's suction
+	 * strength for entities. */
+	private static final double SUCTION_STRENGTH = 0.075;
+	/** The maximum speed of each piece in each direction before suction stops affecting it. */
+	private static final double MAX_SPEED = 1;
+	/** Fraction of each piece's velocity that is retained each tick. Same as falling blocks. */
+	private static final double DRAG = 0.98;
+
+	private final List<Piece> pieces = new ArrayList<>();
+
+	/** Pieces added since the last call to {@link DebrisCloud#pollAdded()}, which have not yet been synced. */
+	private final List<Piece> added = new ArrayList<>();
+
+	public boolean isEmpty(){
+		return pieces.isEmpty();
+	}
+
+	public int size(){
+		return pieces.size();
+	}
+
+	@Override
+	public Iterator<Piece> iterator(){
+		return Collections.unmodifiableList(pieces).iterator();
+	}
+
+	/** Lifts the block at the given position into this cloud. Does not remove the block from the world. */
+	public void add(IBlockState state, BlockPos pos){
+		Piece piece = new Piece(state, pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5);
+		pieces.add(piece);
+		added.add(piece);
+	}
+
+	/** Returns the pieces added since the last time this method was called, and clears them. */
+	public List<Piece> pollAdded(){
+		List<Piece> result = new ArrayList<>(added);
+		added.clear();
+		return result;
+	}
+
+	/**
+	 * Moves all the pieces in this cloud one tick's worth towards the given entity, and removes any that end up within
+	 * the given distance of it.
+	 * @param centre The entity pulling the blocks in
+	 * @param crushRadius The distance from the entity at which blocks get destroyed
+	 * @return A list of the pieces that were destroyed this tick, or an empty list if there were none
+	 */
+	public List<Piece> update(Entity centre, double crushRadius){
+
+		List<Piece> crushed = Collections.emptyList();
+
+		for(Iterator<Piece> iterator = pieces.iterator(); iterator.hasNext();){
+
+			Piece piece = iterator.next();
+
+			piece.prevX = piece.x;
+			piece.prevY = piece.y;
+			piece.prevZ = piece.z;
+
+			piece.motionX = pull(piece.x, centre.posX, piece.motionX);
+			piece.motionY = pull(piece.y, centre.posY, piece.motionY);
+			piece.motionZ = pull(piece.z, centre.posZ, piece.motionZ);
+
+			piece.x += piece.motionX;
+			piece.y += piece.motionY;
+			piece.z += piece.motionZ;
+
+			piece.motionX *= DRAG;
+			piece.motionY *= DRAG;
+			piece.motionZ *= DRAG;
+
+			if(centre.getDistanceSq(piece.x, piece.y, piece.z) <= crushRadius * crushRadius){
+				if(crushed.isEmpty()) crushed = new ArrayList<>();
+				crushed.add(piece);
+				iterator.remove();
+			}
+		}
+
+		return crushed;
+	}
+
+	private static double pull(double pos, double target, double motion){
+		if(target > pos && motion < MAX_SPEED) return motion + SUCTION_STRENGTH;
+		if(target < pos && motion > -MAX_SPEED) return motion - SUCTION_STRENGTH;
+		return motion;
+	}
+
+	/**
+	 * Returns all the pieces in this cloud to the world. Each piece drops straight down until it lands, then is placed
+	 * back as a block if possible; if not it is destroyed instead (blocks are never dropped as items). Server-side only.
+	 */
+	public void collapse(World world){
+
+		for(Piece piece : pieces){
+
+			BlockPos pos = new BlockPos(piece.x, piece.y, piece.z);
+			while(pos.getY() > 0 && BlockFalling.canFallThrough(world.getBlockState(pos.down()))) pos = pos.down();
+
+			Block block = piece.state.getBlock();
+
+			if(pos.getY() > 0 && world.mayPlace(block, pos, true, EnumFacing.UP, null)
+					&& world.setBlockState(pos, piece.state, 3)){
+				if(block instanceof BlockFalling){
+					((BlockFalling)block).onEndFalling(world, pos, piece.state, world.getBlockState(pos));
+				}
+			}else{
+				world.playEvent(2001, pos, Block.getStateId(piece.state));
+			}
+		}
+
+		pieces.clear();
+		added.clear();
+	}
+
+	// Positions and velocities are synced as floats to save bandwidth, the rounding error doesn't matter since clients
+	// only use them for rendering
+
+	/** Writes the given pieces to the given buffer. */
+	public static void write(ByteBuf buf, List<Piece> pieces){
+		buf.writeShort(pieces.size());
+		for(Piece piece : pieces){
+			buf.writeInt(Block.getStateId(piece.state));
+			buf.writeFloat((float)piece.x);
+			buf.writeFloat((float)piece.y);
+			buf.writeFloat((float)piece.z);
+			buf.writeFloat((float)piece.motionX);
+			buf.writeFloat((float)piece.motionY);
+			buf.writeFloat((float)piece.motionZ);
+		}
+	}
+
+	/** Reads a list of pieces from the given buffer, as written by {@link DebrisCloud#write(ByteBuf, List)}. */
+	public static List<Piece> read(ByteBuf buf){
+		int count = buf.readShort();
+		List<Piece> pieces = new ArrayList<>(count);
+		for(int i = 0; i < count; i++){
+			Piece piece = new Piece(Block.getStateById(buf.readInt()), buf.readFloat(), buf.readFloat(), buf.readFloat());
+			piece.motionX = buf.readFloat();
+			piece.motionY = buf.readFloat();
+			piece.motionZ = buf.readFloat();
+			pieces.add(piece);
+		}
+		return pieces;
+	}
+
+	/** Adds the given pieces, which have been synced from the server, to this cloud. Client-side only. */
+	public void addAll(List<Piece> pieces){
+		this.pieces.addAll(pieces);
+	}
+
+	/** Writes the pieces currently in this cloud to the given buffer. */
+	public void writeSpawnData(ByteBuf buf){
+		write(buf, pieces);
+	}
+
+	/** Replaces the pieces in this cloud with the ones in the given buffer. */
+	public void readSpawnData(ByteBuf buf){
+		pieces.clear();
+		pieces.addAll(read(buf));
+	}
+
+	public NBTTagList toNBT(){
+		return NBTExtras.listToNBT(pieces, Piece::toNBT);
+	}
+
+	public void fromNBT(NBTTagList tagList){
+		pieces.clear();
+		pieces.addAll(NBTExtras.NBTToList(tagList, Piece::fromNBT));
+	}
+
+	/** A single block within a debris cloud. Positions are the bottom-centre of the block, like entities. */
+	public static class Piece {
+
+		public final IBlockState state;
+
+		public double x, y, z;
+		public double prevX, prevY, prevZ;
+		private double motionX, motionY, motionZ;
+
+		private Piece(IBlockState state, double x, double y, double z){
+			this.state = state;
+			this.x = this.prevX = x;
+			this.y = this.prevY = y;
+			this.z = this.prevZ = z;
+		}
+
+		private NBTTagCompound toNBT(){
+			NBTTagCompound nbt = new NBTTagCompound();
+			NBTExtras.storeTagSafely(nbt, "state", NBTUtil.writeBlockState(new NBTTagCompound(), state));
+			nbt.setDouble("x", x);
+			nbt.setDouble("y", y);
+			nbt.setDouble("z", z);
+			nbt.setDouble("motionX", motionX);
+			nbt.setDouble("motionY", motionY);
+			nbt.setDouble("motionZ", motionZ);
+			return nbt;
+		}
+
+		private static Piece fromNBT(NBTTagCompound nbt){
+			Piece piece = new Piece(NBTUtil.readBlockState(nbt.getCompoundTag("state")), nbt.getDouble("x"),
+					nbt.getDouble("y"), nbt.getDouble("z"));
+			piece.motionX = nbt.getDouble("motionX");
+			piece.motionY = nbt.getDouble("motionY");
+			piece.motionZ = nbt.getDouble("motionZ");
+			return piece;
+		}
+	}
+
+}
@@ -3,14 +3,19 @@ package electroblob.wizardry.entity.construct;
 import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.entity.EntityLevitatingBlock;
 import electroblob.wizardry.item.ItemArtefact;
+import electroblob.wizardry.packet.PacketDebrisCloud;
+import electroblob.wizardry.packet.WizardryPacketHandler;
 import electroblob.wizardry.registry.Spells;
 import electroblob.wizardry.registry.WizardryItems;
 import electroblob.wizardry.registry.WizardrySounds;
 import electroblob.wizardry.spell.Spell;
+import electroblob.wizardry.util.BlockShellScanner;
 import electroblob.wizardry.util.BlockUtils;
 import electroblob.wizardry.util.EntityUtils;
 import electroblob.wizardry.util.MagicDamage;
 import electroblob.wizardry.util.MagicDamage.DamageType;
+import electroblob.wizardry.util.NBTExtras;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
@@ -24,6 +29,7 @@ import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -34,10 +40,19 @@ public class EntityBlackHole extends EntityScaledConstruct {
 	private static final double SUCTION_STRENGTH = 0.075;
 	/** The maximum number of blocks that can be unhooked each tick, reduces lag from excessive numbers of entities. */
 	private static final int BLOCK_UNHOOK_LIMIT = 3;
+	/** The maximum number of positions that can be checked for blocks to unhook each tick. */
+	private static final int BLOCK_SCAN_LIMIT = 256;
+	/** The distance from the centre at which entities are damaged and blocks are destroyed. */
+	private static final double CRUSH_RADIUS = 2;
 
 	public int[] randomiser;
 	public int[] randomiser2;
 
+	/** The blocks that this black hole has lifted out of the world. */
+	private final DebrisCloud debris = new DebrisCloud();
+	/** Keeps track of which blocks this black hole has already checked for unhooking. Server-side only. */
+	private BlockShellScanner scanner;
+
 	public EntityBlackHole(World world){
 		super(world);
 		float r = Spells.black_hole.getProperty(Spell.EFFECT_RADIUS).floatValue();
@@ -57,6 +72,7 @@ public class EntityBlackHole extends EntityScaledConstruct {
 		super.readEntityFromNBT(nbttagcompound);
 		randomiser = nbttagcompound.getIntArray("randomiser");
 		randomiser2 = nbttagcompound.getIntArray("randomiser2");
+		debris.fromNBT(nbttagcompound.getTagList("debris", Constants.NBT.TAG_COMPOUND));
 	}
 
 	@Override
@@ -64,6 +80,31 @@ public class EntityBlackHole extends EntityScaledConstruct {
 		super.writeEntityToNBT(nbttagcompound);
 		nbttagcompound.setIntArray("randomiser", randomiser);
 		nbttagcompound.setIntArray("randomiser2", randomiser2);
+		NBTExtras.storeTagSafely(nbttagcompound, "debris", debris.toNBT());
+	}
+
+	@Override
+	public void writeSpawnData(ByteBuf data){
+		super.writeSpawnData(data);
+		debris.writeSpawnData(data);
+	}
+
+	@Override
+	public void readSpawnData(ByteBuf data){
+		super.readSpawnData(data);
+		debris.readSpawnData(data);
+	}
+
+	/** Returns the cloud of blocks that this black hole has lifted out of the world. */
+	public DebrisCloud getDebris(){
+		return debris;
+	}
+
+	@Override
+	public void despawn(){
+		// Anything that didn't get sucked in falls back to the ground
+		if(!world.isRemote) debris.collapse(world);
+		super.despawn();
 	}
 
 	public void onUpdate(){
@@ -91,6 +132,15 @@ public class EntityBlackHole extends EntityScaledConstruct {
 			this.playSound(WizardrySounds.ENTITY_BLACK_HOLE_AMBIENT, 1.5f, 1.0f);
 		}
 
+		// Blocks are only ever crushed server-side, clients just stop rendering them (the block break event is synced)
+		for(DebrisCloud.Piece piece : debris.update(this, CRUSH_RADIUS)){
+			if(!world.isRemote){
+				world.playSound(null, piece.x, piece.y, piece.z, WizardrySounds.ENTITY_BLACK_HOLE_BREAK_BLOCK,
+						this.getSoundCategory(), 0.5f, (rand.nextFloat() - rand.nextFloat()) * 0.2f + 1);
+				world.playEvent(2001, new BlockPos(piece.x, piece.y, piece.z), Block.getStateId(piece.state));
+			}
+		}
+
 		if(!this.world.isRemote){
 
 			double radius = 2 * height * sizeMultiplier;
@@ -100,31 +150,23 @@ public class EntityBlackHole extends EntityScaledConstruct {
 
 			if(suckInBlocks){
 
-				List<BlockPos> sphere = BlockUtils.getBlockSphere(new BlockPos(this), radius);
-
-				int blocksUnhooked = 0;
+				// The black hole never moves so there's no need to worry about the centre changing
+				if(scanner == null) scanner = new BlockShellScanner(world, new BlockPos(this), radius);
 
-				for(BlockPos pos : sphere){
+				List<BlockPos> blocks = scanner.scan(BLOCK_SCAN_LIMIT, BLOCK_UNHOOK_LIMIT, pos ->
+						!BlockUtils.isBlockUnbreakable(world, pos) && !world.isAirBlock(pos)
+						&& world.isBlockNormalCube(pos, false) && BlockUtils.canBreakBlock(getCaster(), world, pos));
 
-					if(rand.nextInt(Math.max(1, (int)this.getDistanceSq(pos) * 3)) == 0){
-
-						if(!BlockUtils.isBlockUnbreakable(world, pos) && !world.isAirBlock(pos)
-								&& world.isBlockNormalCube(pos, false) && BlockUtils.canBreakBlock(getCaster(), world, pos)){
-							// Checks that the block above is not solid, since this causes the falling block to vanish.
-//							&& !world.isBlockNormalCube(pos.up(), false)){
+				for(BlockPos pos : blocks){
+					debris.add(world.getBlockState(pos), pos);
+					world.setBlockToAir(pos);
+				}
 
-							EntityFallingBlock fallingBlock = new EntityLevitatingBlock(world, pos.getX() + 0.5,
-									pos.getY() + 0.5, pos.getZ() + 0.5, world.getBlockState(pos));
-//							fallingBlock.noClip = true;
-							fallingBlock.fallTime = 1; // Prevent it from trying to delete the block itself
-							world.spawnEntity(fallingBlock);
-							world.setBlockToAir(pos);
+				List<DebrisCloud.Piece> added = debris.pollAdded();
 
-							if(++blocksUnhooked >= BLOCK_UNHOOK_LIMIT) break; // Lag prevention
-						}
-					}
+				if(!added.isEmpty()){
+					WizardryPacketHandler.net.sendToAllTracking(new PacketDebrisCloud.Message(this.getEntityId(), added), this);
 				}
-
 			}
 
 			List<Entity> targets = EntityUtils.getEntitiesWithinRadius(radius, this.posX, this.posY,
@@ -168,7 +210,7 @@ public class EntityBlackHole extends EntityScaledConstruct {
 						}
 					}
 
-					if(this.getDistance(target) <= 2){
+					if(this.getDistance(target) <= CRUSH_RADIUS){
 						// Damages the target if it is close enough, or destroys it if it's a block
 						if(target instanceof EntityFallingBlock){
 							target.playSound(WizardrySounds.ENTITY_BLACK_HOLE_BREAK_BLOCK, 0.5f,
@@ -0,0 +1,86 @@
+package electroblob.wizardry.entity.living;
+
+import electroblob.wizardry.event.SpellCastEvent;
+import electroblob.wizardry.registry.Spells;
+import electroblob.wizardry.spell.Spell;
+import electroblob.wizardry.util.SpellModifiers;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.util.EnumHand;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Keeps track of the {@link ISpellCaster} entities in the client world, so that the client-side continuous spell
+ * update only needs to visit those entities rather than checking every living entity in the world each tick.
+ * <p></p>
+ * Casters are registered when they join the client world, regardless of how their continuous spell gets synced (data
+ * parameters for the wizard classes, {@link electroblob.wizardry.packet.PacketNPCCastSpell} for anything using
+ * {@link EntityAIAttackSpell}, or something else entirely for other mods' casters), so nothing needs to notify this
+ * class when a continuous spell starts or stops. NPCs that can cast spells are few and far between, so checking each
+ * of them every tick is no real cost.
+ * <p></p>
+ * Entities are weakly referenced, so unloaded or removed casters will never be kept in memory by this class.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber(Side.CLIENT)
+public final class ActiveSpellCasters {
+
+	/** The spell-casting entities in the client world. Entities from previous client worlds are removed the next time
+	 * they are checked, if they haven't been garbage collected already. */
+	private static final Set<EntityLiving> casters = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private ActiveSpellCasters(){} // No instances!
+
+	@SubscribeEvent
+	public static void onEntityJoinWorldEvent(EntityJoinWorldEvent event){
+		if(event.getWorld().isRemote && event.getEntity() instanceof ISpellCaster && event.getEntity() instanceof EntityLiving){
+			casters.add((EntityLiving)event.getEntity());
+		}
+	}
+
+	/**
+	 * Client-side continuous spell casting for NPCs. Server-side casting is handled by {@link EntityAIAttackSpell},
+	 * but the client needs to call the spell's cast method each tick in order to spawn particles, play sounds, etc.
+	 * Called from the client tick handler.
+	 */
+	public static void updateClientCasters(World world){
+
+		if(casters.isEmpty()) return;
+
+		// Copied because casting spells could potentially spawn other casters
+		for(EntityLiving caster : new ArrayList<>(casters)){
+
+			if(caster.isDead || caster.world != world){
+				casters.remove(caster);
+				continue;
+			}
+
+			Spell spell = ((ISpellCaster)caster).getContinuousSpell();
+
+			if(spell == null || spell == Spells.none) continue; // IntelliJ is wrong, do NOT remove the null check!
+
+			SpellModifiers modifiers = ((ISpellCaster)caster).getModifiers();
+			int count = ((ISpellCaster)caster).getSpellCounter();
+
+			if(!MinecraftForge.EVENT_BUS.post(new SpellCastEvent.Tick(SpellCastEvent.Source.NPC, spell, caster,
+					modifiers, count))){
+
+				spell.cast(world, caster, EnumHand.MAIN_HAND, count,
+						// TODO: This implementation of modifiers relies on them being accessible client-side.
+						// 		 Right now that doesn't matter because NPCs don't use modifiers, but they might in future
+						caster.getAttackTarget(), modifiers);
+
+				((ISpellCaster)caster).setSpellCounter(count + 1);
+			}
+		}
+	}
+
+}
@@ -12,7 +12,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.util.EnumHand;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 import java.util.ArrayList;
@@ -104,12 +103,10 @@ public class EntityAIAttackSpell<T extends EntityLiving & ISpellCaster> extends
 
 	private void setContinuousSpellAndNotify(Spell spell, SpellModifiers modifiers){
 		attacker.setContinuousSpell(spell);
-		WizardryPacketHandler.net.sendToAllAround(
+		// Only players that can actually see the caster need to know about it
+		WizardryPacketHandler.net.sendToAllTracking(
 				new PacketNPCCastSpell.Message(attacker.getEntityId(), target == null ? -1 : target.getEntityId(),
-						EnumHand.MAIN_HAND, spell, modifiers),
-				// Particles are usually only visible from 16 blocks away, so 128 is more than far enough.
-				// TODO: Why is this one a 128 block radius, whilst the other one is all in dimension?
-				new TargetPoint(attacker.dimension, attacker.posX, attacker.posY, attacker.posZ, 128));
+						EnumHand.MAIN_HAND, spell, modifiers), attacker);
 	}
 
 	@Override
@@ -230,10 +227,10 @@ public class EntityAIAttackSpell<T extends EntityLiving & ISpellCaster> extends
 				this.cooldown = this.baseCooldown + spell.getCooldown();
 
 				if(spell.requiresPacket()){
-					// Sends a packet to all players in dimension to tell them to spawn particles.
+					// Sends a packet to all players tracking the caster to tell them to spawn particles.
 					IMessage msg = new PacketNPCCastSpell.Message(attacker.getEntityId(), target.getEntityId(),
 							EnumHand.MAIN_HAND, spell, modifiers);
-					WizardryPacketHandler.net.sendToDimension(msg, attacker.world.provider.getDimension());
+					WizardryPacketHandler.net.sendToAllTracking(msg, attacker);
 				}
 			}
 
@@ -0,0 +1,63 @@
+package electroblob.wizardry.entity.living;
+
+import com.google.common.base.Predicate;
+import net.minecraft.entity.EntityCreature;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.ai.EntityAINearestAttackableTarget;
+import net.minecraft.util.math.AxisAlignedBB;
+
+import javax.annotation.Nullable;
+
+/**
+ * Target AI for summoned creatures. This behaves exactly like {@link EntityAINearestAttackableTarget} for creatures
+ * that are not part of a {@link MinionSquad}, or that have strayed too far from the rest of their squad. Otherwise,
+ * targets are taken from the squad's shared search results, and each target is weighted by the number of squad
+ * members already attacking it so that the squad spreads out over nearby enemies instead of all going for the nearest.
+ * <p></p>
+ * Summoned creatures should add this in place of {@code EntityAINearestAttackableTarget}, passing in their target
+ * selector from {@link ISummonedCreature#getTargetSelector()}.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public class EntityAISquadTarget extends EntityAINearestAttackableTarget<EntityLivingBase> {
+
+	public EntityAISquadTarget(EntityCreature creature, boolean checkSight, boolean onlyNearby,
+							   @Nullable Predicate<? super EntityLivingBase> targetSelector){
+		super(creature, EntityLivingBase.class, 0, checkSight, onlyNearby, targetSelector);
+	}
+
+	@Override
+	public boolean shouldExecute(){
+
+		MinionSquad squad = MinionSquad.get(taskOwner);
+
+		if(squad == null || !squad.isWithinSquad(taskOwner)) return super.shouldExecute();
+
+		double range = getTargetDistance();
+		AxisAlignedBB area = getTargetableArea(range);
+
+		EntityLivingBase best = null;
+		double bestScore = Double.MAX_VALUE;
+
+		for(EntityLivingBase candidate : squad.getCandidates(taskOwner, range)){
+
+			// The squad's search area covers all members, so check this one can actually reach the target
+			if(!area.intersects(candidate.getEntityBoundingBox()) || !targetEntitySelector.apply(candidate)) continue;
+
+			// Simple threat spreading: each member already attacking a target makes it look further away
+			double score = taskOwner.getDistanceSq(candidate) * (1 + squad.countAttackers(candidate));
+
+			if(score < bestScore){
+				best = candidate;
+				bestScore = score;
+			}
+		}
+
+		if(best == null) return false;
+
+		targetEntity = best;
+		return true;
+	}
+
+}
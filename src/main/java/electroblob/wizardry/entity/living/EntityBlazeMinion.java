@@ -4,7 +4,6 @@ import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.client.DrawingUtils;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.ai.EntityAIHurtByTarget;
-import net.minecraft.entity.ai.EntityAINearestAttackableTarget;
 import net.minecraft.entity.monster.EntityBlaze;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.Item;
@@ -61,8 +60,7 @@ public class EntityBlazeMinion extends EntityBlaze implements ISummonedCreature
 		super.initEntityAI();
 		this.targetTasks.taskEntries.clear();
 		this.targetTasks.addTask(1, new EntityAIHurtByTarget(this, false));
-		this.targetTasks.addTask(2, new EntityAINearestAttackableTarget<>(this, EntityLivingBase.class,
-				0, false, true, this.getTargetSelector()));
+		this.targetTasks.addTask(2, new EntityAISquadTarget(this, false, true, this.getTargetSelector()));
 	}
 
 	// Implementations
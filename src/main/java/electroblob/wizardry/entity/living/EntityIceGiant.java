@@ -53,8 +53,7 @@ public class EntityIceGiant extends EntityIronGolem implements ISummonedCreature
 		this.tasks.addTask(6, new EntityAIWatchClosest(this, EntityPlayer.class, 6.0F));
 		this.tasks.addTask(7, new EntityAILookIdle(this));
 		this.targetTasks.addTask(1, new EntityAIHurtByTarget(this, false));
-		this.targetTasks.addTask(2, new EntityAINearestAttackableTarget<>(this, EntityLivingBase.class,
-				0, false, true, this.getTargetSelector()));
+		this.targetTasks.addTask(2, new EntityAISquadTarget(this, false, true, this.getTargetSelector()));
 	}
 
 	// EntityIronGolem overrides
@@ -10,7 +10,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.SharedMonsterAttributes;
 import net.minecraft.entity.ai.EntityAIHurtByTarget;
 import net.minecraft.entity.ai.EntityAILookIdle;
-import net.minecraft.entity.ai.EntityAINearestAttackableTarget;
 import net.minecraft.entity.ai.EntityAIWatchClosest;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumParticleTypes;
@@ -52,8 +51,7 @@ public class EntityPhoenix extends EntitySummonedCreature implements ISpellCaste
 		this.tasks.addTask(3, new EntityAILookIdle(this));
 		// this.targetTasks.addTask(0, new EntityAIMoveTowardsTarget(this, 1, 10));
 		this.targetTasks.addTask(1, new EntityAIHurtByTarget(this, true));
-		this.targetTasks.addTask(2, new EntityAINearestAttackableTarget<>(this, EntityLivingBase.class,
-				0, false, true, this.getTargetSelector()));
+		this.targetTasks.addTask(2, new EntityAISquadTarget(this, false, true, this.getTargetSelector()));
 
 		this.setAIMoveSpeed((float)AISpeed);
 	}
@@ -44,8 +44,7 @@ public class EntityShadowWraith extends EntitySummonedCreature implements ISpell
 		this.tasks.addTask(2, new EntityAIWander(this, AISpeed));
 		this.tasks.addTask(3, new EntityAILookIdle(this));
 		this.targetTasks.addTask(1, new EntityAIHurtByTarget(this, true));
-		this.targetTasks.addTask(2, new EntityAINearestAttackableTarget<>(this, EntityLivingBase.class,
-				0, false, true, this.getTargetSelector()));
+		this.targetTasks.addTask(2, new EntityAISquadTarget(this, false, true, this.getTargetSelector()));
 
 		this.setAIMoveSpeed((float)AISpeed);
 	}
@@ -9,7 +9,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.IEntityLivingData;
 import net.minecraft.entity.SharedMonsterAttributes;
 import net.minecraft.entity.ai.EntityAIHurtByTarget;
-import net.minecraft.entity.ai.EntityAINearestAttackableTarget;
 import net.minecraft.entity.ai.attributes.AttributeModifier;
 import net.minecraft.entity.monster.EntityCaveSpider;
 import net.minecraft.entity.player.EntityPlayer;
@@ -55,10 +54,9 @@ public class EntitySpiderMinion extends EntityCaveSpider implements ISummonedCre
 		this.targetTasks.taskEntries.clear();
 		// Spiders use a custom AI type specific to spiders which I can't access, but it's just an extension of
 		// EntityAINearestAttackableTarget which takes daylight into account. Since I want spider minions to attack
-		// regardless of daylight, I can just use EntityAINearestAttackableTarget.
+		// regardless of daylight, I can just use EntityAISquadTarget, which extends it.
 		this.targetTasks.addTask(1, new EntityAIHurtByTarget(this, false));
-		this.targetTasks.addTask(2, new EntityAINearestAttackableTarget<EntityLivingBase>(this, EntityLivingBase.class,
-				0, false, true, this.getTargetSelector()));
+		this.targetTasks.addTask(2, new EntityAISquadTarget(this, false, true, this.getTargetSelector()));
 	}
 
 	// No spider jockeys!
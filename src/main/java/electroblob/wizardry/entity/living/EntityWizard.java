@@ -5,6 +5,7 @@ import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.constants.Element;
 import electroblob.wizardry.constants.Tier;
 import electroblob.wizardry.data.WizardData;
+import electroblob.wizardry.data.WizardTowerData;
 import electroblob.wizardry.event.DiscoverSpellEvent;
 import electroblob.wizardry.item.ItemArtefact;
 import electroblob.wizardry.item.ItemSpellBook;
@@ -41,6 +42,7 @@ import net.minecraft.village.MerchantRecipeList;
 import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.EnumDifficulty;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.Constants.NBT;
 import net.minecraftforge.common.util.FakePlayer;
@@ -88,9 +90,6 @@ public class EntityWizard extends EntityCreature implements INpc, IMerchant, ISp
 	// Field implementations
 	private List<Spell> spells = new ArrayList<Spell>(4);
 
-	/** A set of the positions of the blocks that are part of this wizard's tower. */
-	private Set<BlockPos> towerBlocks;
-
 	public EntityWizard(World world){
 		super(world);
 		this.detachHome();
@@ -411,10 +410,6 @@ public class EntityWizard extends EntityCreature implements INpc, IMerchant, ISp
 		nbt.setInteger("element", element == null ? 0 : element.ordinal());
 		nbt.setInteger("skin", this.textureIndex);
 		NBTExtras.storeTagSafely(nbt, "spells", NBTExtras.listToNBT(spells, spell -> new NBTTagInt(spell.metadata())));
-
-		if(this.towerBlocks != null && this.towerBlocks.size() > 0){
-			NBTExtras.storeTagSafely(nbt, "towerBlocks", NBTExtras.listToNBT(this.towerBlocks, NBTUtil::createPosTag));
-		}
 	}
 
 	@Override
@@ -432,13 +427,16 @@ public class EntityWizard extends EntityCreature implements INpc, IMerchant, ISp
 		this.spells = (List<Spell>)NBTExtras.NBTToList(nbt.getTagList("spells", NBT.TAG_INT),
 				(NBTTagInt tag) -> Spell.byMetadata(tag.getInt()));
 
-		NBTTagList tagList = nbt.getTagList("towerBlocks", NBT.TAG_COMPOUND);
-		if(!tagList.isEmpty()){
-			this.towerBlocks = new HashSet<>(NBTExtras.NBTToList(tagList, NBTUtil::getPosFromTag));
-		}else{
-			// Fallback to old packed long format
-			this.towerBlocks = new HashSet<>(NBTExtras.NBTToList(nbt.getTagList("towerBlocks", NBT.TAG_LONG),
-					(NBTTagLong tag) -> BlockPos.fromLong(tag.getLong())));
+		// Backwards compatibility: tower blocks used to be stored in the wizard's NBT, so move them to the world data
+		if(nbt.hasKey("towerBlocks") && !world.isRemote){
+			NBTTagList tagList = nbt.getTagList("towerBlocks", NBT.TAG_COMPOUND);
+			if(!tagList.isEmpty()){
+				setTowerBlocks(new HashSet<>(NBTExtras.NBTToList(tagList, NBTUtil::getPosFromTag)));
+			}else{
+				// Fallback to old packed long format
+				setTowerBlocks(new HashSet<>(NBTExtras.NBTToList(nbt.getTagList("towerBlocks", NBT.TAG_LONG),
+						(NBTTagLong tag) -> BlockPos.fromLong(tag.getLong()))));
+			}
 		}
 	}
 
@@ -876,31 +874,37 @@ public class EntityWizard extends EntityCreature implements INpc, IMerchant, ISp
 	 * @param blocks A Set of BlockPos objects representing the blocks in the tower.
 	 */
 	public void setTowerBlocks(Set<BlockPos> blocks){
-		this.towerBlocks = blocks;
+		// Tower blocks are stored in the world rather than in the wizard since there are so many of them
+		WizardTowerData.get(world).addTowerBlocks(this.getUniqueID(), blocks);
 	}
 
 	/** Tests whether the block at the given coordinates is part of this wizard's tower. */
 	public boolean isBlockPartOfTower(BlockPos pos){
-		if(this.towerBlocks == null) return false;
-		// Uses .equals() rather than == so this will work fine.
-		return this.towerBlocks.contains(pos);
+		return this.getUniqueID().equals(WizardTowerData.get(world).getOwner(pos));
+	}
+
+	@Override
+	public void setDead(){
+		super.setDead();
+		// This covers everything that really removes the wizard (death, commands, changing dimension, etc.) but not
+		// chunk unloading, which doesn't call setDead
+		if(!world.isRemote) WizardTowerData.get(world).removeTower(this.getUniqueID());
 	}
 
 	@SubscribeEvent
 	public static void onBlockBreakEvent(BlockEvent.BreakEvent event){
 		// Makes wizards angry if a player breaks a block in their tower
-		if(!(event.getPlayer() instanceof FakePlayer)){
+		if(!(event.getPlayer() instanceof FakePlayer) && !event.getWorld().isRemote){
 
-			List<EntityWizard> wizards = EntityUtils.getEntitiesWithinRadius(64, event.getPos().getX(),
-					event.getPos().getY(), event.getPos().getZ(), event.getWorld(), EntityWizard.class);
+			UUID owner = WizardTowerData.get(event.getWorld()).getOwner(event.getPos());
+			if(owner == null) return;
 
-			if(!wizards.isEmpty()){
-				for(EntityWizard wizard : wizards){
-					if(wizard.isBlockPartOfTower(event.getPos())){
-						wizard.setRevengeTarget(event.getPlayer());
-						WizardryAdvancementTriggers.anger_wizard.triggerFor(event.getPlayer());
-					}
-				}
+			Entity wizard = ((WorldServer)event.getWorld()).getEntityFromUuid(owner);
+
+			// Wizards only notice if they're nearby
+			if(wizard instanceof EntityWizard && wizard.getDistanceSq(event.getPos()) <= 64 * 64){
+				((EntityWizard)wizard).setRevengeTarget(event.getPlayer());
+				WizardryAdvancementTriggers.anger_wizard.triggerFor(event.getPlayer());
 			}
 		}
 	}
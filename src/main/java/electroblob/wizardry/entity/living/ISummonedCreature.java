@@ -304,6 +304,8 @@ public interface ISummonedCreature extends IEntityAdditionalSpawnData, IEntityOw
 		Entity thisEntity = ((Entity)this);
 
 		if(thisEntity.ticksExisted == 1){
+			// Only records the time the first time the creature spawns, not each time it is loaded
+			if(!thisEntity.world.isRemote) SummonBudget.recordSpawnTime(thisEntity);
 			this.onSpawn();
 		}
 
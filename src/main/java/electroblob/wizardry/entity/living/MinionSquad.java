@@ -0,0 +1,144 @@
+package electroblob.wizardry.entity.living;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.Vec3d;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * A group of summoned creatures that were summoned by the same cast of a minion spell. Members of a squad share a
+ * single target search, which is run at most once every {@link MinionSquad#SEARCH_INTERVAL} ticks, rather than each
+ * member searching for targets separately. Targets are then handed out to members by {@link EntityAISquadTarget},
+ * which spreads them out so that the whole squad doesn't pile onto the same target.
+ * <p></p>
+ * Squads only exist server-side and are not saved; summoned creatures that are reloaded from disk simply fall back to
+ * individual targeting. Members are weakly referenced, so squads never keep dead or unloaded creatures in memory.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public class MinionSquad {
+
+	/** The minimum number of ticks between target searches for a squad. */
+	public static final int SEARCH_INTERVAL = 10;
+	/** The distance a squad member may be from the centre of the squad before it reverts to individual targeting. */
+	public static final double COHESION_RADIUS = 16;
+
+	/** Map of creatures to the squad they belong to. Weak keys, so creatures are removed when they cease to exist. */
+	// Only accessed from the server thread, so there's no need for synchronisation
+	private static final Map<Entity, MinionSquad> squads = new WeakHashMap<>();
+
+	private final List<WeakReference<EntityLiving>> members = new ArrayList<>();
+
+	/** The targets found by the last search, or null if there hasn't been a search yet. */
+	private List<EntityLivingBase> candidates;
+	/** The world time at which the last search was run. */
+	private long lastSearchTime;
+	/** The centre of the squad, recalculated each time a search is run. */
+	private Vec3d centre;
+
+	private MinionSquad(){}
+
+	/**
+	 * Forms a new squad from the given creatures. Does nothing if there are fewer than two of them, since a squad of
+	 * one would be pointless.
+	 * @param minions The creatures to form a squad from. These should all have been summoned by the same caster.
+	 */
+	public static <T extends EntityLiving & ISummonedCreature> void form(Collection<T> minions){
+
+		if(minions.size() < 2) return;
+
+		MinionSquad squad = new MinionSquad();
+
+		for(T minion : minions){
+			squad.members.add(new WeakReference<>(minion));
+			squads.put(minion, squad);
+		}
+	}
+
+	/** Returns the squad the given creature belongs to, or null if it doesn't belong to one. */
+	@Nullable
+	public static MinionSquad get(Entity entity){
+		return squads.get(entity);
+	}
+
+	/** Returns a list of the members of this squad that are still alive, removing any that are not. */
+	public List<EntityLiving> getMembers(){
+
+		List<EntityLiving> alive = new ArrayList<>(members.size());
+
+		for(Iterator<WeakReference<EntityLiving>> iterator = members.iterator(); iterator.hasNext();){
+			EntityLiving member = iterator.next().get();
+			if(member == null || !member.isEntityAlive()) iterator.remove();
+			else alive.add(member);
+		}
+
+		return alive;
+	}
+
+	/**
+	 * Returns whether the given squad member is close enough to the rest of the squad to use the shared target
+	 * search. Members that have strayed too far should search for targets themselves.
+	 */
+	public boolean isWithinSquad(EntityLiving member){
+		return centre == null || member.getDistanceSq(centre.x, centre.y, centre.z) <= COHESION_RADIUS * COHESION_RADIUS;
+	}
+
+	/**
+	 * Returns the possible targets near this squad, running a new search if the last one is out of date. The results
+	 * are filtered only by the target selector of the searching member (which is the same for all members since they
+	 * share a caster); callers must check the results against their own criteria.
+	 * @param searcher The squad member requesting the targets.
+	 * @param range The distance around each member to search within.
+	 * @return A list of possible targets, which may contain entities that have since died.
+	 */
+	public List<EntityLivingBase> getCandidates(EntityLiving searcher, double range){
+
+		long time = searcher.world.getTotalWorldTime();
+
+		if(candidates == null || time - lastSearchTime >= SEARCH_INTERVAL){
+
+			lastSearchTime = time;
+
+			List<EntityLiving> members = getMembers();
+			if(members.isEmpty()) members = Collections.singletonList(searcher);
+
+			// Bounding box of the whole squad, which is then expanded like vanilla's targetable area
+			AxisAlignedBB box = null;
+			double x = 0, y = 0, z = 0;
+
+			for(EntityLiving member : members){
+				box = box == null ? member.getEntityBoundingBox() : box.union(member.getEntityBoundingBox());
+				x += member.posX;
+				y += member.posY;
+				z += member.posZ;
+			}
+
+			centre = new Vec3d(x / members.size(), y / members.size(), z / members.size());
+
+			candidates = searcher.world.getEntitiesWithinAABB(EntityLivingBase.class, box.grow(range, 4, range),
+					((ISummonedCreature)searcher).getTargetSelector());
+			candidates.removeAll(members); // Squad members can never target each other anyway
+		}
+
+		return candidates;
+	}
+
+	/** Returns the number of members of this squad that are currently attacking the given entity. */
+	public int countAttackers(EntityLivingBase target){
+
+		int count = 0;
+
+		for(EntityLiving member : getMembers()){
+			if(member.getAttackTarget() == target) count++;
+		}
+
+		return count;
+	}
+
+}
@@ -11,6 +11,7 @@ import electroblob.wizardry.spell.Spell;
 import electroblob.wizardry.tileentity.TileEntityArcaneWorkbench;
 import electroblob.wizardry.util.ISpellSortable;
 import electroblob.wizardry.util.InventoryUtils;
+import electroblob.wizardry.util.SpellSearch;
 import electroblob.wizardry.util.WandHelper;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -76,8 +77,9 @@ public class ContainerArcaneWorkbench extends Container implements ISpellSortabl
 	private int scroll = 0;
 	private ISpellSortable.SortType sortType = ISpellSortable.SortType.TIER;
 	private boolean sortDescending = false;
-	private String searchText = "";
+	private SpellSearch.Query searchQuery = SpellSearch.ALL;
 
+	/** Set to true when the bookshelf slots need refreshing; the refresh is then done at most once per tick. */
 	public boolean needsRefresh;
 
 	public ContainerArcaneWorkbench(IInventory inventory, TileEntityArcaneWorkbench tileentity){
@@ -126,12 +128,30 @@ public class ContainerArcaneWorkbench extends Container implements ISpellSortabl
 		refreshBookshelfSlots(); // Must be done last
 
 		this.onSlotChanged(CENTRE_SLOT, wand, null);
+
+		WorkbenchContainerIndex.add(this);
 	}
 
 	@Override
 	public boolean canInteractWith(EntityPlayer player){
 		return this.tileentity.isUsableByPlayer(player);
 	}
+
+	@Override
+	public void onContainerClosed(EntityPlayer player){
+		super.onContainerClosed(player);
+		WorkbenchContainerIndex.remove(this);
+	}
+
+	@Override
+	public void detectAndSendChanges(){
+		// Server-side equivalent of the refresh in GuiArcaneWorkbench#updateScreen()
+		if(needsRefresh){
+			refreshBookshelfSlots();
+			needsRefresh = false;
+		}
+		super.detectAndSendChanges();
+	}
 	
 	/**
 	 * Shows the given slot in the container GUI at the given position. Intended to do the opposite of
@@ -482,9 +502,20 @@ public class ContainerArcaneWorkbench extends Container implements ISpellSortabl
 
 	/** Sets the search text for the bookshelf slots. */
 	public void setSearchText(@Nonnull String searchText){
-		this.searchText = searchText;
+
+		SpellSearch.Query query = SpellSearch.compile(searchText);
+		boolean narrows = query.narrows(searchQuery);
+		this.searchQuery = query;
 		this.scrollTo(0);
-		updateActiveBookshelfSlots();
+
+		if(narrows && activeBookshelfSlots != null){
+			// Search text was only added to, so only the slots that already matched can still match (and they're
+			// already sorted)
+			activeBookshelfSlots = activeBookshelfSlots.stream().filter(s -> s.isValid() && !s.getStack().isEmpty()
+					&& query.test(Spell.byMetadata(s.getStack().getMetadata()))).collect(Collectors.toList());
+		}else{
+			updateActiveBookshelfSlots();
+		}
 	}
 
 	/** Returns <b>all</b> bookshelf slots currently linked to this container, including empty ones. The returned list
@@ -500,7 +531,7 @@ public class ContainerArcaneWorkbench extends Container implements ISpellSortabl
 		activeBookshelfSlots = bookshelfSlots.stream().filter(s -> s.isValid() && !s.getStack().isEmpty()
 				// Slot 0 is a convenient way of testing if the item is a valid spell book
 				&& this.getSlot(0).isItemValid(s.getStack())
-				&& Spell.byMetadata(s.getStack().getMetadata()).matches(searchText))
+				&& searchQuery.test(Spell.byMetadata(s.getStack().getMetadata())))
 				// TODO: This doesn't account for non-spell book items at the moment
 				.sorted(Comparator.comparing(s -> Spell.byMetadata(s.getStack().getMetadata()),
 						sortDescending ? sortType.comparator.reversed() : sortType.comparator))
@@ -0,0 +1,95 @@
+package electroblob.wizardry.inventory;
+
+import electroblob.wizardry.Wizardry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+/**
+ * Per-world index of open {@link ContainerArcaneWorkbench}es, keyed by the chunk their workbench is in. This allows
+ * bookshelf changes to be passed on to only those containers whose workbench is within the bookshelf search radius,
+ * rather than checking every player in the world. Containers are added when they are created and removed when they are
+ * closed; all references are weak so a container that somehow doesn't get closed properly won't leak.
+ * <p></p>
+ * Notified containers don't refresh immediately; instead they are flagged and refresh at most once per tick, so moving
+ * lots of books at once only triggers a single rescan.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public final class WorkbenchContainerIndex {
+
+	// In singleplayer the client and server are on different threads, so they each need their own index
+	/** Open containers on the client side for each world, keyed by chunk. */
+	private static final Map<World, Map<Long, Set<ContainerArcaneWorkbench>>> clientIndex = new WeakHashMap<>();
+	/** Open containers on the server side for each world, keyed by chunk. */
+	private static final Map<World, Map<Long, Set<ContainerArcaneWorkbench>>> serverIndex = new WeakHashMap<>();
+
+	private WorkbenchContainerIndex(){} // No instances!
+
+	/** Adds the given container to the index. */
+	static void add(ContainerArcaneWorkbench container){
+		World world = container.tileentity.getWorld();
+		getIndex(world).computeIfAbsent(world, w -> new HashMap<>())
+				.computeIfAbsent(getKey(container.tileentity.getPos()), k -> Collections.newSetFromMap(new WeakHashMap<>()))
+				.add(container);
+	}
+
+	/** Removes the given container from the index. */
+	static void remove(ContainerArcaneWorkbench container){
+
+		World world = container.tileentity.getWorld();
+		Map<Long, Set<ContainerArcaneWorkbench>> containers = getIndex(world).get(world);
+		if(containers == null) return;
+
+		Long key = getKey(container.tileentity.getPos());
+		Set<ContainerArcaneWorkbench> set = containers.get(key);
+
+		if(set != null){
+			set.remove(container);
+			if(set.isEmpty()) containers.remove(key);
+		}
+	}
+
+	/**
+	 * Flags all open arcane workbench containers within the bookshelf search radius of the given position for a
+	 * bookshelf refresh.
+	 * @param world The world in which the bookshelf changed.
+	 * @param pos The position of the bookshelf that changed.
+	 */
+	public static void notifyBookshelfChange(World world, BlockPos pos){
+
+		Map<Long, Set<ContainerArcaneWorkbench>> containers = getIndex(world).get(world);
+		if(containers == null || containers.isEmpty()) return;
+
+		int radius = Wizardry.settings.bookshelfSearchRadius;
+
+		for(int cx = (pos.getX() - radius) >> 4; cx <= (pos.getX() + radius) >> 4; cx++){
+			for(int cz = (pos.getZ() - radius) >> 4; cz <= (pos.getZ() + radius) >> 4; cz++){
+
+				Set<ContainerArcaneWorkbench> set = containers.get(ChunkPos.asLong(cx, cz));
+				if(set == null) continue;
+
+				for(ContainerArcaneWorkbench container : set){
+					// Bookshelves are searched for in a cube, so this is the same check as the search itself
+					BlockPos workbench = container.tileentity.getPos();
+					if(Math.abs(workbench.getX() - pos.getX()) <= radius && Math.abs(workbench.getY() - pos.getY()) <= radius
+							&& Math.abs(workbench.getZ() - pos.getZ()) <= radius){
+						container.needsRefresh = true;
+					}
+				}
+			}
+		}
+	}
+
+	private static Map<World, Map<Long, Set<ContainerArcaneWorkbench>>> getIndex(World world){
+		return world.isRemote ? clientIndex : serverIndex;
+	}
+
+	private static Long getKey(BlockPos pos){
+		return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+	}
+
+}
@@ -0,0 +1,94 @@
+package electroblob.wizardry.packet;
+
+import electroblob.wizardry.Wizardry;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <b>[Server -> Client]</b> This packet is sent to a player when they start tracking a chunk containing arcane-locked
+ * blocks, with all the locked positions in that chunk, and to all players tracking a chunk when a block in it is
+ * locked or unlocked, with just that position.
+ */
+public class PacketArcaneLock implements IMessageHandler<PacketArcaneLock.Message, IMessage> {
+
+	@Override
+	public IMessage onMessage(Message message, MessageContext ctx){
+		// Just to make sure that the side is correct
+		if(ctx.side.isClient()){
+			// Using a fully qualified name is a good course of action here; we don't really want to clutter the proxy
+			// methods any more than necessary.
+			net.minecraft.client.Minecraft.getMinecraft().addScheduledTask(() -> Wizardry.proxy.handleArcaneLockPacket(message));
+		}
+
+		return null;
+	}
+
+	public static class Message implements IMessage {
+
+		public int chunkX, chunkZ;
+		/** True if the locked positions in this message replace all the existing ones in the chunk, false if the
+		 * positions in this message have been added or removed individually. */
+		public boolean wholeChunk;
+		public List<BlockPos> locked;
+		public List<BlockPos> unlocked;
+
+		// This constructor is required otherwise you'll get errors (used somewhere in fml through reflection)
+		public Message(){}
+
+		/** Creates a message containing all the locked positions in the given chunk. */
+		public Message(int chunkX, int chunkZ, Collection<BlockPos> locked){
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.wholeChunk = true;
+			this.locked = new ArrayList<>(locked);
+			this.unlocked = new ArrayList<>();
+		}
+
+		/** Creates a message for a single position being locked or unlocked. */
+		public Message(BlockPos pos, boolean locked){
+			this.chunkX = pos.getX() >> 4;
+			this.chunkZ = pos.getZ() >> 4;
+			this.wholeChunk = false;
+			this.locked = new ArrayList<>();
+			this.unlocked = new ArrayList<>();
+			(locked ? this.locked : this.unlocked).add(pos);
+		}
+
+		@Override
+		public void fromBytes(ByteBuf buf){
+			chunkX = buf.readInt();
+			chunkZ = buf.readInt();
+			wholeChunk = buf.readBoolean();
+			locked = readPositions(buf);
+			unlocked = readPositions(buf);
+		}
+
+		@Override
+		public void toBytes(ByteBuf buf){
+			buf.writeInt(chunkX);
+			buf.writeInt(chunkZ);
+			buf.writeBoolean(wholeChunk);
+			writePositions(buf, locked);
+			writePositions(buf, unlocked);
+		}
+
+		private static List<BlockPos> readPositions(ByteBuf buf){
+			int count = buf.readShort();
+			List<BlockPos> positions = new ArrayList<>(count);
+			for(int i = 0; i < count; i++) positions.add(BlockPos.fromLong(buf.readLong()));
+			return positions;
+		}
+
+		private static void writePositions(ByteBuf buf, List<BlockPos> positions){
+			buf.writeShort(positions.size());
+			positions.forEach(p -> buf.writeLong(p.toLong()));
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package electroblob.wizardry.packet;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.entity.construct.DebrisCloud;
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import java.util.List;
+
+/**
+ * <b>[Server -> Client]</b> This packet is sent to clients tracking a black hole each tick that it lifts blocks into
+ * its debris cloud, and contains all the blocks lifted that tick.
+ */
+public class PacketDebrisCloud implements IMessageHandler<PacketDebrisCloud.Message, IMessage> {
+
+	@Override
+	public IMessage onMessage(Message message, MessageContext ctx){
+		// Just to make sure that the side is correct
+		if(ctx.side.isClient()){
+			// Using a fully qualified name is a good course of action here; we don't really want to clutter the proxy
+			// methods any more than necessary.
+			net.minecraft.client.Minecraft.getMinecraft().addScheduledTask(() -> Wizardry.proxy.handleDebrisCloudPacket(message));
+		}
+
+		return null;
+	}
+
+	public static class Message implements IMessage {
+
+		public int entityID;
+		public List<DebrisCloud.Piece> pieces;
+
+		// This constructor is required otherwise you'll get errors (used somewhere in fml through reflection)
+		public Message(){}
+
+		public Message(int entityID, List<DebrisCloud.Piece> pieces){
+			this.entityID = entityID;
+			this.pieces = pieces;
+		}
+
+		@Override
+		public void fromBytes(ByteBuf buf){
+			entityID = buf.readInt();
+			pieces = DebrisCloud.read(buf);
+		}
+
+		@Override
+		public void toBytes(ByteBuf buf){
+			buf.writeInt(entityID);
+			DebrisCloud.write(buf, pieces);
+		}
+	}
+}
@@ -35,6 +35,8 @@ public class WizardryPacketHandler {
 		registerMessage(PacketSpellQuickAccess.class, 		PacketSpellQuickAccess.Message.class);
 		registerMessage(PacketRequestDonationPerks.class, 	PacketRequestDonationPerks.Message.class);
 		registerMessage(PacketSyncDonationPerks.class, 		PacketSyncDonationPerks.Message.class);
+		registerMessage(PacketDebrisCloud.class, 			PacketDebrisCloud.Message.class);
+		registerMessage(PacketArcaneLock.class, 			PacketArcaneLock.Message.class);
 	}
 
 	private static int nextPacketId = 0;
@@ -2,11 +2,14 @@ package electroblob.wizardry.spell;
 
 import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.item.SpellActions;
+import electroblob.wizardry.packet.PacketArcaneLock;
+import electroblob.wizardry.packet.WizardryPacketHandler;
 import electroblob.wizardry.util.*;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityDispenser;
@@ -14,12 +17,19 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.event.entity.living.LivingDestroyBlockEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkWatchEvent;
 import net.minecraftforge.event.world.ExplosionEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Mod.EventBusSubscriber
 public class ArcaneLock extends SpellRay {
@@ -70,12 +80,14 @@ public class ArcaneLock extends SpellRay {
 				if(world.getPlayerEntityByUUID(tileentity.getTileData().getUniqueId(NBT_KEY)) == player){
 					NBTExtras.removeUniqueId(tileentity.getTileData(), NBT_KEY);
 					world.markAndNotifyBlock(pos, null, world.getBlockState(pos), world.getBlockState(pos), 3);
+					syncLock(world, pos, false);
 					return true;
 				}
 			}else{
 				// Locking
 				tileentity.getTileData().setUniqueId(NBT_KEY, player.getUniqueID());
 				world.markAndNotifyBlock(pos, null, world.getBlockState(pos), world.getBlockState(pos), 3);
+				syncLock(world, pos, true);
 				return true;
 			}
 		}
@@ -83,6 +95,17 @@ public class ArcaneLock extends SpellRay {
 		return false;
 	}
 
+	/**
+	 * Sends the new lock state of the block at the given position to all players tracking the chunk it is in. This
+	 * must be called whenever a block is locked or unlocked after its chunk has been sent to clients, otherwise the
+	 * lock overlay won't update. Server-side only.
+	 */
+	public static void syncLock(World world, BlockPos pos, boolean locked){
+		WizardryPacketHandler.net.sendToAllTracking(new PacketArcaneLock.Message(pos, locked),
+				new NetworkRegistry.TargetPoint(world.provider.getDimension(), pos.getX() + 0.5, pos.getY() + 0.5,
+						pos.getZ() + 0.5, 0));
+	}
+
 	@Override
 	protected boolean onMiss(World world, EntityLivingBase caster, Vec3d origin, Vec3d direction, int ticksInUse, SpellModifiers modifiers){
 		return false;
@@ -132,6 +155,24 @@ public class ArcaneLock extends SpellRay {
 		event.setCanceled(checkForLockedBlockBreak(event.getEntityLiving(), event.getEntity().world, event.getPos()));
 	}
 
+	// These run last and only if nothing cancelled the break, so by now the locked block is definitely going. Clients
+	// must be told explicitly since the block could be replaced by another tile entity before they would notice.
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void onBlockBreakEventLowest(BlockEvent.BreakEvent event){
+		syncBrokenLock(event.getWorld(), event.getPos());
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void onLivingDestroyBlockEventLowest(LivingDestroyBlockEvent event){
+		syncBrokenLock(event.getEntity().world, event.getPos());
+	}
+
+	private static void syncBrokenLock(World world, BlockPos pos){
+		if(world.isRemote) return;
+		TileEntity tileentity = world.getTileEntity(pos);
+		if(tileentity != null && tileentity.getTileData().hasUniqueId(NBT_KEY)) syncLock(world, pos, false);
+	}
+
 	private static boolean checkForLockedBlockBreak(EntityLivingBase breaker, World world, BlockPos pos){
 
 		if(!(breaker instanceof EntityPlayer) || !canBypassLocks((EntityPlayer)breaker)){
@@ -160,6 +201,21 @@ public class ArcaneLock extends SpellRay {
 		return server != null && EntityUtils.isPlayerOp(player, server);
 	}
 
+	@SubscribeEvent
+	public static void onChunkWatchEvent(ChunkWatchEvent.Watch event){
+
+		// Clients only need to know about locked blocks, so chunks without any don't need a packet at all
+		EntityPlayerMP player = event.getPlayer();
+		Chunk chunk = player.world.getChunkFromChunkCoords(event.getChunk().x, event.getChunk().z);
+
+		List<BlockPos> locked = chunk.getTileEntityMap().values().stream()
+				.filter(t -> t.getTileData().hasUniqueId(NBT_KEY)).map(TileEntity::getPos).collect(Collectors.toList());
+
+		if(!locked.isEmpty()){
+			WizardryPacketHandler.net.sendTo(new PacketArcaneLock.Message(chunk.x, chunk.z, locked), player);
+		}
+	}
+
 	@SubscribeEvent
 	public static void onExplosionEvent(ExplosionEvent.Detonate event){
 		// Prevents arcane-locked containers from being exploded
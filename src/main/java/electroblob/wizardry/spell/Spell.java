@@ -14,6 +14,7 @@ import electroblob.wizardry.registry.WizardryItems;
 import electroblob.wizardry.registry.WizardrySounds;
 import electroblob.wizardry.util.SpellModifiers;
 import electroblob.wizardry.util.SpellProperties;
+import electroblob.wizardry.util.SpellSearch;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
@@ -716,65 +717,13 @@ public abstract class Spell extends IForgeRegistryEntry.Impl<Spell> implements C
 	 * contains the given string.
 	 * <p></p>
 	 * <i>Keys are case-sensitive, but everything else is not.</i>
+	 * <p></p>
+	 * If testing more than one spell against the same string, use {@link SpellSearch#compile(String)} instead.
 	 * @param text The string to tested
 	 * @return True if this spell matches the given string, false otherwise.
 	 */
 	public boolean matches(@Nonnull String text){
-
-		if(text.isEmpty()) return true;
-
-		boolean discovered = Wizardry.proxy.shouldDisplayDiscovered(this, null);
-
-		String[] conditions = text.split(MATCH_CONDITION_SEPARATOR);
-
-		for(String condition : conditions){
-
-			String[] args = condition.split(MATCH_KEY_VALUE_SEPARATOR, 2);
-
-			// Invalid condition, treat the whole lot as a spell name instead
-			if(args.length < 2) return discovered && getDisplayName().toLowerCase(Locale.ROOT).contains(text);
-
-			String key = args[0];
-			String[] values = args[1].split(MATCH_VALUE_SEPARATOR);
-
-			String target;
-
-			switch(key){
-				case TIER_MATCH_PREFIX:
-				case TIER_MATCH_ALIAS:
-					// Tier IS known for undiscovered spells so we can match it
-					target = getTier().getDisplayName().toLowerCase(Locale.ROOT);
-					break;
-				case ELEMENT_MATCH_PREFIX:
-				case ELEMENT_MATCH_ALIAS:
-					if(!discovered) return false; // Element is unknown so doesn't match
-					target = getElement().getDisplayName().toLowerCase(Locale.ROOT);
-					break;
-				case TYPE_MATCH_PREFIX:
-				case TYPE_MATCH_ALIAS:
-					if(!discovered) return false; // Type is unknown so doesn't match
-					target = getType().getDisplayName().toLowerCase(Locale.ROOT);
-					break;
-				case MODID_MATCH_PREFIX:
-				case MODID_MATCH_ALIAS:
-					if(!discovered) return false; // Mod ID is unknown so doesn't match
-					target = getRegistryName().getNamespace().toLowerCase(Locale.ROOT);
-					break;
-				case DISCOVERED_MATCH_PREFIX:
-				case DISCOVERED_MATCH_ALIAS:
-					target = Boolean.toString(discovered);
-					break;
-				default:
-					// Invalid condition, treat the whole lot as a spell name instead
-					return discovered && getDisplayName().toLowerCase(Locale.ROOT).contains(text);
-			}
-
-			if(Arrays.stream(values).noneMatch(target::contains)) return false; // Didn't match
-
-		}
-
-		return true; // Matched all the conditions, yay!
-
+		return SpellSearch.compile(text).test(this);
 	}
 
 	// ============================================ Sound methods ==============================================
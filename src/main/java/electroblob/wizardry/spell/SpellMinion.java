@@ -2,11 +2,13 @@ package electroblob.wizardry.spell;
 
 import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.entity.living.ISummonedCreature;
+import electroblob.wizardry.entity.living.MinionSquad;
 import electroblob.wizardry.item.SpellActions;
 import electroblob.wizardry.registry.WizardryItems;
 import electroblob.wizardry.util.BlockUtils;
 import electroblob.wizardry.util.EntityUtils;
 import electroblob.wizardry.util.SpellModifiers;
+import electroblob.wizardry.util.SummonBudget;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.IEntityLivingData;
@@ -18,10 +20,13 @@ import net.minecraft.tileentity.TileEntityDispenser;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -38,6 +43,8 @@ import java.util.function.Function;
  * By default, this type of spell can be cast by dispensers. {@link Spell#canBeCastBy(TileEntityDispenser)}
  * <p></p>
  * By default, this type of spell does not require a packet to be sent. {@link Spell#requiresPacket()}
+ * <p></p>
+ * The number of minions actually summoned is subject to the summon limits in the config; see {@link SummonBudget}.
  * 
  * @author Electroblob
  * @since Wizardry 4.2
@@ -108,7 +115,14 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 		
 		// In this case it looks nice to have them all explode out from one position! (It also makes the code simpler...)
 		if(!world.isRemote){
-			for(int i=0; i<getProperty(MINION_COUNT).intValue(); i++){
+
+			SummonBudget.Allocation allocation = SummonBudget.allocate(world, null, getProperty(MINION_COUNT).intValue());
+			int count = allocation.getCount();
+			if(count <= 0) return false;
+
+			List<T> minions = new ArrayList<>();
+
+			for(int i=0; i<count; i++){
 
 				T minion = minionFactory.apply(world);
 
@@ -117,8 +131,11 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 				minion.setLifetime((int)(getProperty(MINION_LIFETIME).floatValue() * modifiers.get(WizardryItems.duration_upgrade)));
 				this.addMinionExtras(minion, pos, null, modifiers, i);
 
-				world.spawnEntity(minion);
+				if(world.spawnEntity(minion)) minions.add(minion);
 			}
+
+			allocation.despawnOldest(minions.size());
+			MinionSquad.form(minions);
 		}
 		// This MUST be the coordinates of the actual dispenser, so we need to offset it
 		this.playSound(world, x - direction.getXOffset(), y - direction.getYOffset(), z - direction.getZOffset(), ticksInUse, duration, modifiers);
@@ -129,8 +146,9 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 	/**
 	 * Actually spawns the minions. By default, this spawns the number of minions specified by the
 	 * {@link SpellMinion#MINION_COUNT} property within a number of blocks of the caster specified by the property
-	 * {@link SpellMinion#SUMMON_RADIUS}, returning false if there is no space to spawn the minions. Override to do
-	 * something special, like spawning minions in a specific position.
+	 * {@link SpellMinion#SUMMON_RADIUS}, returning false if there is no space to spawn the minions or the caster has
+	 * reached their summon limit (see {@link SummonBudget}). Override to do something special, like spawning minions
+	 * in a specific position.
 	 * 
 	 * @param world The world in which to spawn the minions.
 	 * @param caster The entity that cast this spell, or null if it was cast by a dispenser.
@@ -143,7 +161,23 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 	protected boolean spawnMinions(World world, EntityLivingBase caster, SpellModifiers modifiers){
 		
 		if(!world.isRemote){
-			for(int i=0; i<getProperty(MINION_COUNT).intValue(); i++){
+
+			int requested = getProperty(MINION_COUNT).intValue();
+			SummonBudget.Allocation allocation = SummonBudget.allocate(world, caster, requested);
+			int count = allocation.getCount();
+
+			if(count < requested && caster instanceof EntityPlayer){
+				((EntityPlayer)caster).sendStatusMessage(new TextComponentTranslation(count > 0 ? "spell.summon_limit.partial"
+						: "spell.summon_limit.refused"), true);
+			}
+
+			if(count <= 0) return false;
+
+			// Minions summoned together share a target search, see MinionSquad
+			List<T> minions = new ArrayList<>();
+			boolean success = true;
+
+			for(int i=0; i<count; i++){
 
 				int range = getProperty(SUMMON_RADIUS).intValue();
 
@@ -162,7 +196,10 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 				}else{
 					// If there was no floor around and the entity isn't a flying one, the spell fails.
 					// As per the javadoc for findNearbyFloorSpace, there's no point trying the rest of the minions.
-					if(pos == null) return false;
+					if(pos == null){
+						success = false;
+						break;
+					}
 				}
 				
 				T minion = createMinion(world, caster, modifiers);
@@ -182,8 +219,14 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 
 				this.addMinionExtras(minion, pos, caster, modifiers, i);
 				
-				world.spawnEntity(minion);
+				if(world.spawnEntity(minion)) minions.add(minion);
 			}
+
+			// Only make room for the minions that were actually spawned, so nothing is lost if spawning failed
+			allocation.despawnOldest(minions.size());
+			MinionSquad.form(minions);
+
+			return success;
 		}
 		
 		return true;
@@ -211,7 +254,7 @@ public class SpellMinion<T extends EntityLiving & ISummonedCreature> extends Spe
 	 * @param caster The caster of this spell, or null if it was cast by a dispenser.
 	 * @param modifiers The modifiers this spell was cast with.
 	 * @param alreadySpawned The number of minions already spawned, before this one. Always less than the property
-	 * {@link SpellMinion#MINION_COUNT}.
+	 * {@link SpellMinion#MINION_COUNT}, and less than the number allowed by the summon limits.
 	 */
 	protected void addMinionExtras(T minion, BlockPos pos, @Nullable EntityLivingBase caster, SpellModifiers modifiers, int alreadySpawned){
 		minion.onInitialSpawn(minion.world.getDifficultyForLocation(pos), null);
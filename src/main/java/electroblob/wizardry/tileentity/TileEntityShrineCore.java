@@ -155,7 +155,10 @@ public class TileEntityShrineCore extends TileEntity implements ITickable {
 		world.markTileEntityForRemoval(this);
 
 		if(!world.isRemote){
-			if(linkedContainer != null) NBTExtras.removeUniqueId(linkedContainer.getTileData(), ArcaneLock.NBT_KEY);
+			if(linkedContainer != null){
+				NBTExtras.removeUniqueId(linkedContainer.getTileData(), ArcaneLock.NBT_KEY);
+				ArcaneLock.syncLock(world, linkedContainer.getPos(), false);
+			}
 		}else{
 			TileEntity tileEntity = world.getTileEntity(this.pos.up());
 			if(tileEntity != null){ // Bit of a dirty fix but it's only visual, so meh
@@ -0,0 +1,176 @@
+package electroblob.wizardry.util;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Incrementally scans a sphere of blocks for positions matching some condition, spread over as many ticks as
+ * necessary. The sphere is the same shape as {@link BlockUtils#getBlockSphere(BlockPos, double)} (with the radius
+ * rounded up to the nearest half block), but positions are scanned from the centre outwards, one shell at a time, and
+ * each position is only examined once. Positions that change after they have been examined (other than to air) are
+ * reported by a world event listener and examined again.
+ * This means the cost of each scan is bounded by the limits passed in, no matter how large the sphere is.
+ * <p></p>
+ * Scanners are server-side only, and stop receiving block updates once they are no longer referenced.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber
+public class BlockShellScanner {
+
+	/** Cache of sphere shapes for each radius, keyed by twice the radius rounded up. Radii are rounded up to the next
+	 * half block, since potency modifiers mean they can be almost anything and each sphere is fairly large. */
+	private static final Map<Integer, Sphere> spheres = new HashMap<>();
+
+	/** The scanners in each world. Scanners are weakly referenced, so there's no need to remove them explicitly. */
+	private static final Map<World, Set<BlockShellScanner>> scanners = new WeakHashMap<>();
+
+	private final BlockPos centre;
+	private final Sphere sphere;
+
+	/** Indices (into the sphere's offsets) of the positions that have already been examined. */
+	private final BitSet examined;
+	/** Index of the first position that might not have been examined yet. */
+	private int cursor = 0;
+
+	public BlockShellScanner(World world, BlockPos centre, double radius){
+
+		if(world.isRemote) throw new IllegalArgumentException("Block shell scanners can only be used server-side");
+
+		this.centre = centre;
+		this.sphere = spheres.computeIfAbsent(MathHelper.ceil(radius * 2), d -> new Sphere(d / 2d));
+		this.examined = new BitSet(sphere.offsets.length);
+
+		scanners.computeIfAbsent(world, w -> Collections.newSetFromMap(new WeakHashMap<>())).add(this);
+	}
+
+	/**
+	 * Examines the next positions in this scanner's sphere, starting from the innermost position that hasn't been
+	 * examined yet.
+	 * @param maxExamined The maximum number of positions to examine
+	 * @param maxMatches The maximum number of matching positions to return
+	 * @param condition The condition to test each position with
+	 * @return A list of the positions that matched, in the order they were found. Matching positions will not be
+	 * examined again unless the block there changes, so the caller should act on all of them.
+	 */
+	public List<BlockPos> scan(int maxExamined, int maxMatches, Predicate<BlockPos> condition){
+
+		List<BlockPos> matches = new ArrayList<>(maxMatches);
+
+		for(int i = 0; i < maxExamined && matches.size() < maxMatches; i++){
+
+			cursor = examined.nextClearBit(cursor);
+			if(cursor >= sphere.offsets.length) break; // Everything has been examined
+
+			BlockPos pos = centre.add(sphere.offsets[cursor]);
+			if(condition.test(pos)) matches.add(pos);
+			examined.set(cursor);
+		}
+
+		return matches;
+	}
+
+	/** Called when the block at the given position changes, so that it gets examined again. */
+	private void markChanged(BlockPos pos){
+		int index = sphere.getIndex(pos.getX() - centre.getX(), pos.getY() - centre.getY(), pos.getZ() - centre.getZ());
+		if(index >= 0){
+			examined.clear(index);
+			cursor = Math.min(cursor, index);
+		}
+	}
+
+	/** The shape of a sphere of blocks, with positions ordered from the centre outwards. */
+	private static class Sphere {
+
+		/** The block offsets from the centre, in order of increasing distance. */
+		private final BlockPos[] offsets;
+		/** The maximum offset from the centre in any direction. */
+		private final int extent;
+		/** The index of each position within the bounding cube of the sphere, or -1 if it is not in the sphere. */
+		private final int[] indices;
+
+		private Sphere(double radius){
+
+			offsets = BlockUtils.getBlockSphere(BlockPos.ORIGIN, radius).toArray(new BlockPos[0]);
+			Arrays.sort(offsets, Comparator.comparingDouble(p -> p.distanceSq(BlockPos.ORIGIN)));
+
+			extent = (int)radius;
+			int size = 2 * extent + 1;
+			indices = new int[size * size * size];
+			Arrays.fill(indices, -1);
+
+			for(int i = 0; i < offsets.length; i++){
+				indices[getCubeIndex(offsets[i].getX(), offsets[i].getY(), offsets[i].getZ())] = i;
+			}
+		}
+
+		private int getCubeIndex(int dx, int dy, int dz){
+			int size = 2 * extent + 1;
+			return ((dx + extent) * size + (dy + extent)) * size + (dz + extent);
+		}
+
+		private int getIndex(int dx, int dy, int dz){
+			if(Math.abs(dx) > extent || Math.abs(dy) > extent || Math.abs(dz) > extent) return -1;
+			return indices[getCubeIndex(dx, dy, dz)];
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldLoadEvent(WorldEvent.Load event){
+		if(!event.getWorld().isRemote) event.getWorld().addEventListener(Listener.instance);
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnloadEvent(WorldEvent.Unload event){
+		if(!event.getWorld().isRemote) event.getWorld().removeEventListener(Listener.instance);
+	}
+
+	private static class Listener implements IWorldEventListener {
+
+		private static final Listener instance = new Listener();
+
+		private Listener(){}
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags){
+
+			// Blocks being removed can never make a position match, and this also ignores the blocks that the
+			// scanners' own users remove
+			if(oldState == newState || newState.getMaterial() == Material.AIR) return;
+
+			Set<BlockShellScanner> worldScanners = scanners.get(world);
+			if(worldScanners != null) worldScanners.forEach(s -> s.markChanged(pos));
+		}
+
+		// Dummy implementations
+		@Override public void notifyLightSet(BlockPos pos){}
+		@Override public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2){}
+		@Override public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch){}
+		@Override public void playRecord(SoundEvent soundIn, BlockPos pos){}
+		@Override public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+		@Override public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+		@Override public void onEntityAdded(Entity entityIn){}
+		@Override public void onEntityRemoved(Entity entityIn){}
+		@Override public void broadcastSound(int soundID, BlockPos pos, int data){}
+		@Override public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data){}
+		@Override public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress){}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+package electroblob.wizardry.util;
+
+import electroblob.wizardry.Settings;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.oredict.OreDictionary;
+import net.minecraftforge.registries.IForgeRegistry;
+import net.minecraftforge.registries.IForgeRegistryEntry;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Compiled form of a metadata-sensitive list config option (see {@link Settings#parseItemMetaStrings(String...)}).
+ * Rather than comparing registry names and metadata against every entry in the list, the entries are looked up in the
+ * relevant registry once and stored as a map of block or item instances to the set of metadata values they match,
+ * which makes each check a single map lookup and bit test.
+ * <p></p>
+ * Matchers are compiled lazily by {@link Settings#containsMetaBlock(Pair[], net.minecraft.block.state.IBlockState)}
+ * and {@link Settings#containsMetaItem(Pair[], net.minecraft.item.ItemStack)}, so there is no need to create them
+ * directly. Entries that don't exist in the registry are ignored, since they could never match anything anyway.
+ *
+ * @param <T> The type of thing being matched, usually {@code Block} or {@code Item}.
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public final class MetaMatcher<T extends IForgeRegistryEntry<T>> {
+
+	/** Map of registry entries to the metadata values they match. Wildcard entries set the wildcard bit. */
+	private final Map<T, BitSet> entries = new IdentityHashMap<>();
+
+	private MetaMatcher(){}
+
+	/**
+	 * Compiles the given config option into a matcher for the given registry.
+	 * @param array The config option to compile
+	 * @param registry The registry to look up the entries in
+	 * @return The resulting matcher
+	 */
+	public static <T extends IForgeRegistryEntry<T>> MetaMatcher<T> compile(Pair<ResourceLocation, Short>[] array,
+																			  IForgeRegistry<T> registry){
+
+		MetaMatcher<T> matcher = new MetaMatcher<>();
+
+		for(Pair<ResourceLocation, Short> entry : array){
+			// Registries with a default value (blocks, for example) return it for missing keys, so check first
+			if(!registry.containsKey(entry.getLeft()) || entry.getRight() < 0) continue;
+			matcher.entries.computeIfAbsent(registry.getValue(entry.getLeft()), t -> new BitSet()).set(entry.getRight());
+		}
+
+		return matcher;
+	}
+
+	/**
+	 * Returns true if this matcher contains an entry for the given thing with the given metadata, or with the
+	 * wildcard value.
+	 */
+	public boolean matches(T thing, short metadata){
+		BitSet values = entries.get(thing);
+		return values != null && (values.get(OreDictionary.WILDCARD_VALUE) || metadata >= 0 && values.get(metadata));
+	}
+
+}
@@ -620,6 +620,16 @@ public final class ParticleBuilder {
 			return;
 		}
 		
+		// If an entity is set, the position is relative to it
+		double px = entity == null ? x : entity.posX + x;
+		double py = entity == null ? y : entity.posY + y;
+		double pz = entity == null ? z : entity.posZ + z;
+
+		if(!Wizardry.proxy.shouldSpawnParticle(type, px, py, pz)){
+			reset();
+			return;
+		}
+
 		electroblob.wizardry.client.particle.ParticleWizardry particle = Wizardry.proxy.createParticle(type, world, x, y, z);
 		
 		if(particle == null){
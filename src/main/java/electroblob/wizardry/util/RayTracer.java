@@ -3,13 +3,15 @@ package electroblob.wizardry.util;
 import electroblob.wizardry.entity.ICustomHitbox;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.EntitySelectors;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 
 import javax.annotation.Nullable;
-import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -130,6 +132,15 @@ public final class RayTracer {
 	public static RayTraceResult rayTrace(World world, Vec3d origin, Vec3d endpoint, float aimAssist,
 										  boolean hitLiquids, boolean ignoreUncollidables, boolean returnLastUncollidable, Class<? extends Entity> entityType, Predicate<? super Entity> filter){
 
+		// Finds the first block hit by the ray trace, if any.
+		RayTraceResult result = world.rayTraceBlocks(origin, endpoint, hitLiquids, ignoreUncollidables, returnLastUncollidable);
+
+		// Clips the entity search range to the part of the ray trace before the block hit, if it hit a block.
+		// Entities beyond the block can't be hit anyway, so there's no point searching for them.
+		if(result != null){
+			endpoint = result.hitVec;
+		}
+
 		// 1 is the standard amount of extra search volume, and aim assist needs to increase this further as well as
 		// expanding the entities' bounding boxes.
 		float borderSize = 1 + aimAssist;
@@ -138,67 +149,95 @@ public final class RayTracer {
 		AxisAlignedBB searchVolume = new AxisAlignedBB(origin.x, origin.y, origin.z, endpoint.x, endpoint.y, endpoint.z)
 				.grow(borderSize, borderSize, borderSize);
 
-		// Gets all of the entities in the bounding box that could be collided with.
-		List<Entity> entities = world.getEntitiesWithinAABB(entityType, searchVolume);
-		// Applies the given filter to remove entities that should be ignored.
-		entities.removeIf(filter);
+		// Rather than getting every entity in a box around the whole ray trace (which for long diagonal ray traces is
+		// mostly nowhere near the ray), this walks along the ray through the 16x16x16 sections that chunks store their
+		// entities in, nearest first, and stops as soon as the remaining sections can't contain anything closer than
+		// the closest hit so far. Like World#getEntitiesWithinAABB, sections are searched an extra MAX_ENTITY_RADIUS
+		// out since entities are stored by position, not bounding box.
+		double padding = borderSize + World.MAX_ENTITY_RADIUS;
 
-		// Finds the first block hit by the ray trace, if any.
-		RayTraceResult result = world.rayTraceBlocks(origin, endpoint, hitLiquids, ignoreUncollidables, returnLastUncollidable);
+		double[] start = {origin.x, origin.y, origin.z};
+		double[] delta = {endpoint.x - origin.x, endpoint.y - origin.y, endpoint.z - origin.z};
+		double length = endpoint.distanceTo(origin);
 
-		// Clips the entity search range to the part of the ray trace before the block hit, if it hit a block.
-		if(result != null){
-			endpoint = result.hitVec;
+		// Sections are visited in slices perpendicular to the axis the ray travels furthest along
+		int axis = 0;
+		for(int i = 1; i < 3; i++){
+			if(Math.abs(delta[i]) > Math.abs(delta[axis])) axis = i;
 		}
 
+		boolean forwards = delta[axis] >= 0;
+		int first = sectionIndex(Math.min(start[axis], start[axis] + delta[axis]) - padding, axis);
+		int last = sectionIndex(Math.max(start[axis], start[axis] + delta[axis]) + padding, axis);
+
 		// Search variables
 		Entity closestHitEntity = null;
 		Vec3d closestHitPosition = endpoint;
-		AxisAlignedBB entityBounds;
-		Vec3d intercept = null;
+		double closestHitDistanceSq = length * length;
+		// Section index ranges for each slice, reused to avoid creating new arrays each time
+		int[] min = new int[3], max = new int[3];
+
+		for(int n = 0; n <= last - first; n++){
 
-		// Iterates through all the entities
-		for(Entity entity : entities){
+			int slice = forwards ? first + n : last - n;
 
-			// I'd like to add the following line so we can, for example, use greater telekinesis through a
-			// ring of fire, but doing so will stop forcefields blocking particles
-			//if(!entity.canBeCollidedWith()) continue;
+			// The fractions of the way along the ray between which entities stored in this slice could be hit
+			double t0 = 0, t1 = 1;
 
-			float fuzziness = EntityUtils.isLiving(entity) ? aimAssist : 0; // Only living entities have aim assist
+			if(delta[axis] != 0){
+				double ta = (sectionMin(slice, axis) - padding - start[axis]) / delta[axis];
+				double tb = (sectionMax(slice, axis) + padding - start[axis]) / delta[axis];
+				t0 = Math.max(0, Math.min(ta, tb));
+				t1 = Math.min(1, Math.max(ta, tb));
+			}
 
-			if(entity instanceof ICustomHitbox){ // Custom hitboxes
-				intercept = ((ICustomHitbox)entity).calculateIntercept(origin, endpoint, fuzziness);
+			if(t0 > t1) continue;
 
-			}else{ // Normal hit detection
+			// Slices are visited in order along the ray, so nothing in this one or any after it can be any closer
+			if(t0 * length * t0 * length >= closestHitDistanceSq) break;
 
-				entityBounds = entity.getEntityBoundingBox();
+			// The range of sections in each of the other two axes that the ray passes near within this slice
+			min[axis] = max[axis] = slice;
 
-				if(entityBounds != null){
+			for(int i = 0; i < 3; i++){
+				if(i == axis) continue;
+				double a = start[i] + delta[i] * t0, b = start[i] + delta[i] * t1;
+				min[i] = sectionIndex(Math.min(a, b) - padding, i);
+				max[i] = sectionIndex(Math.max(a, b) + padding, i);
+			}
 
-					// This is zero for everything except fireballs...
-					float entityBorderSize = entity.getCollisionBorderSize();
-					// ... meaning the following line does nothing in all other cases.
-					// -> Added the non-zero check to prevent unnecessary AABB object creation.
-					if(entityBorderSize != 0)
-						entityBounds = entityBounds.grow(entityBorderSize, entityBorderSize, entityBorderSize);
+			for(int cx = min[0]; cx <= max[0]; cx++){
+				for(int cz = min[2]; cz <= max[2]; cz++){
 
-					// Aim assist expands the bounding box to hit entities within the specified distance of the ray trace.
-					if(fuzziness != 0) entityBounds = entityBounds.grow(fuzziness, fuzziness, fuzziness);
+					Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+					if(chunk == null) continue; // Don't load chunks just to look for entities in them
 
-					// Finds the first point at which the ray trace intercepts the entity's bounding box, if any.
-					RayTraceResult hit = entityBounds.calculateIntercept(origin, endpoint);
-					if(hit != null) intercept = hit.hitVec;
-				}
-			}
+					for(int cy = min[1]; cy <= max[1]; cy++){
+
+						for(Entity entity : chunk.getEntityLists()[cy].getByClass(entityType)){
 
-			// If the ray trace hit the entity...
-			if(intercept != null){
-				// Decides whether the entity that was hit is the closest so far, and if so, overwrites the old one.
-				float currentHitDistance = (float)intercept.distanceTo(origin);
-				float closestHitDistance = (float)closestHitPosition.distanceTo(origin);
-				if(currentHitDistance < closestHitDistance){
-					closestHitEntity = entity;
-					closestHitPosition = intercept;
+							// Same as World#getEntitiesWithinAABB, except the (usually cheaper) filter is applied first
+							if(!EntitySelectors.NOT_SPECTATING.apply(entity) || filter.test(entity)
+									|| !entity.getEntityBoundingBox().intersects(searchVolume)) continue;
+
+							// I'd like to add the following line so we can, for example, use greater telekinesis through a
+							// ring of fire, but doing so will stop forcefields blocking particles
+							//if(!entity.canBeCollidedWith()) continue;
+
+							Vec3d intercept = calculateIntercept(entity, origin, endpoint, aimAssist);
+
+							// If the ray trace hit the entity...
+							if(intercept != null){
+								// Decides whether the entity that was hit is the closest so far, and if so, overwrites the old one.
+								double hitDistanceSq = intercept.squareDistanceTo(origin);
+								if(hitDistanceSq < closestHitDistanceSq){
+									closestHitEntity = entity;
+									closestHitPosition = intercept;
+									closestHitDistanceSq = hitDistanceSq;
+								}
+							}
+						}
+					}
 				}
 			}
 		}
@@ -210,4 +249,51 @@ public final class RayTracer {
 
 		return result;
 	}
+
+	/** Returns the first point at which the given line intercepts the given entity's hitbox, or null if it doesn't. */
+	@Nullable
+	private static Vec3d calculateIntercept(Entity entity, Vec3d origin, Vec3d endpoint, float aimAssist){
+
+		float fuzziness = EntityUtils.isLiving(entity) ? aimAssist : 0; // Only living entities have aim assist
+
+		if(entity instanceof ICustomHitbox){ // Custom hitboxes
+			return ((ICustomHitbox)entity).calculateIntercept(origin, endpoint, fuzziness);
+		}
+
+		// Normal hit detection
+
+		AxisAlignedBB entityBounds = entity.getEntityBoundingBox();
+
+		// This is zero for everything except fireballs...
+		float entityBorderSize = entity.getCollisionBorderSize();
+		// ... meaning the following line does nothing in all other cases.
+		// -> Added the non-zero check to prevent unnecessary AABB object creation.
+		if(entityBorderSize != 0) entityBounds = entityBounds.grow(entityBorderSize, entityBorderSize, entityBorderSize);
+
+		// Aim assist expands the bounding box to hit entities within the specified distance of the ray trace.
+		if(fuzziness != 0) entityBounds = entityBounds.grow(fuzziness, fuzziness, fuzziness);
+
+		// Finds the first point at which the ray trace intercepts the entity's bounding box, if any.
+		RayTraceResult hit = entityBounds.calculateIntercept(origin, endpoint);
+		return hit == null ? null : hit.hitVec;
+	}
+
+	/** Returns the index of the chunk section containing the given coordinate along the given axis (0 = x, 1 = y,
+	 * 2 = z). Entities outside the world's height are stored in the top or bottom section, so y is clamped. */
+	private static int sectionIndex(double coordinate, int axis){
+		int index = MathHelper.floor(coordinate / 16);
+		return axis == 1 ? MathHelper.clamp(index, 0, 15) : index;
+	}
+
+	/** Returns the minimum coordinate of entities stored in the chunk section with the given index along the given
+	 * axis (0 = x, 1 = y, 2 = z). */
+	private static double sectionMin(int index, int axis){
+		return axis == 1 && index == 0 ? Double.NEGATIVE_INFINITY : index * 16;
+	}
+
+	/** Returns the maximum coordinate of entities stored in the chunk section with the given index along the given
+	 * axis (0 = x, 1 = y, 2 = z). */
+	private static double sectionMax(int index, int axis){
+		return axis == 1 && index == 15 ? Double.POSITIVE_INFINITY : index * 16 + 16;
+	}
 }
@@ -0,0 +1,175 @@
+package electroblob.wizardry.util;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.spell.Spell;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Compiled spell search queries, as used by the search fields in the arcane workbench, lectern and creative menu.
+ * The query syntax is described in {@link Spell#matches(String)}. <b>Client-side only!</b>
+ * <p></p>
+ * Rather than splitting the search text and translating the name, tier, element and type of every spell each time
+ * the search text changes, the search text is parsed once into a {@link Query} and the lower-case strings for each
+ * spell are stored in an index, which is cleared whenever resources (and hence the language) are reloaded.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public final class SpellSearch {
+
+	/** Cached lower-case search strings for each spell. */
+	private static final Map<Spell, Entry> index = new HashMap<>();
+
+	/** A query that matches all spells. */
+	public static final Query ALL = new Query("", null);
+
+	private SpellSearch(){} // No instances!
+
+	/** Clears the search index. Called on resource reload, since the translated names may have changed. */
+	public static void clearIndex(){
+		index.clear();
+	}
+
+	private static Entry getEntry(Spell spell){
+		return index.computeIfAbsent(spell, Entry::new);
+	}
+
+	/** Parses the given (lower-case) search text into a query. */
+	public static Query compile(@Nonnull String text){
+
+		if(text.isEmpty()) return ALL;
+
+		String[] conditions = text.split(Spell.MATCH_CONDITION_SEPARATOR);
+		Condition[] compiled = new Condition[conditions.length];
+
+		for(int i = 0; i < conditions.length; i++){
+
+			String[] args = conditions[i].split(Spell.MATCH_KEY_VALUE_SEPARATOR, 2);
+
+			Key key = args.length < 2 ? null : Key.fromString(args[0]);
+			// Invalid condition, treat the whole lot as a spell name instead
+			if(key == null) return new Query(text, null);
+
+			compiled[i] = new Condition(key, args[1].split(Spell.MATCH_VALUE_SEPARATOR));
+		}
+
+		return new Query(text, compiled);
+	}
+
+	/** A compiled search query. Queries are immutable and can be tested against any number of spells. */
+	public static final class Query implements Predicate<Spell> {
+
+		private final String text;
+		/** The conditions for this query, or null if the text is to be matched against spell names. */
+		private final Condition[] conditions;
+
+		private Query(String text, Condition[] conditions){
+			this.text = text;
+			this.conditions = conditions;
+		}
+
+		@Override
+		public boolean test(Spell spell){
+
+			if(text.isEmpty()) return true;
+
+			boolean discovered = Wizardry.proxy.shouldDisplayDiscovered(spell, null);
+
+			if(conditions == null) return discovered && getEntry(spell).name.contains(text);
+
+			for(Condition condition : conditions){
+				if(!condition.test(spell, discovered)) return false;
+			}
+
+			return true; // Matched all the conditions, yay!
+		}
+
+		/**
+		 * Returns true if every spell matching this query is guaranteed to match the given query. This is the case when
+		 * the search text has been added to without any conditions being involved (e.g. when typing a spell name), and
+		 * means only the spells that matched the previous query need testing.
+		 */
+		public boolean narrows(Query previous){
+			if(previous.text.isEmpty()) return !text.isEmpty();
+			return conditions == null && previous.conditions == null && !text.equals(previous.text)
+					&& text.contains(previous.text);
+		}
+	}
+
+	private static final class Condition {
+
+		private final Key key;
+		private final String[] values;
+
+		private Condition(Key key, String[] values){
+			this.key = key;
+			this.values = values;
+		}
+
+		private boolean test(Spell spell, boolean discovered){
+
+			String target;
+
+			switch(key){
+				// Tier IS known for undiscovered spells so we can match it
+				case TIER: target = getEntry(spell).tier; break;
+				// Element, type and mod ID are unknown for undiscovered spells so they don't match
+				case ELEMENT: if(!discovered) return false; target = getEntry(spell).element; break;
+				case TYPE: if(!discovered) return false; target = getEntry(spell).type; break;
+				case MODID: if(!discovered) return false; target = getEntry(spell).modid; break;
+				case DISCOVERED: target = Boolean.toString(discovered); break;
+				default: return false;
+			}
+
+			for(String value : values){
+				if(target.contains(value)) return true;
+			}
+
+			return false; // Didn't match
+		}
+	}
+
+	private enum Key {
+
+		TIER(Spell.TIER_MATCH_PREFIX, Spell.TIER_MATCH_ALIAS),
+		ELEMENT(Spell.ELEMENT_MATCH_PREFIX, Spell.ELEMENT_MATCH_ALIAS),
+		TYPE(Spell.TYPE_MATCH_PREFIX, Spell.TYPE_MATCH_ALIAS),
+		MODID(Spell.MODID_MATCH_PREFIX, Spell.MODID_MATCH_ALIAS),
+		DISCOVERED(Spell.DISCOVERED_MATCH_PREFIX, Spell.DISCOVERED_MATCH_ALIAS);
+
+		private final String prefix, alias;
+
+		Key(String prefix, String alias){
+			this.prefix = prefix;
+			this.alias = alias;
+		}
+
+		private static Key fromString(String string){
+			// Keys are case-sensitive
+			for(Key key : values()){
+				if(key.prefix.equals(string) || key.alias.equals(string)) return key;
+			}
+			return null;
+		}
+	}
+
+	/** The lower-case search strings for a single spell. */
+	private static final class Entry {
+
+		private final String name, tier, element, type, modid;
+
+		private Entry(Spell spell){
+			this.name = spell.getDisplayName().toLowerCase(Locale.ROOT);
+			this.tier = spell.getTier().getDisplayName().toLowerCase(Locale.ROOT);
+			this.element = spell.getElement().getDisplayName().toLowerCase(Locale.ROOT);
+			this.type = spell.getType().getDisplayName().toLowerCase(Locale.ROOT);
+			this.modid = spell.getRegistryName().getNamespace().toLowerCase(Locale.ROOT);
+		}
+	}
+
+}
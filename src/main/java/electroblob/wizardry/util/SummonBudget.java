@@ -0,0 +1,239 @@
+package electroblob.wizardry.util;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.entity.living.ISummonedCreature;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Static helper class that enforces the summoned creature limits defined in the config (per player, per team and per
+ * dimension). Summoned creatures are not tracked separately; instead, the limits are checked against the loaded
+ * {@link ISummonedCreature}s in the relevant world each time a minion spell is cast, so there is nothing to keep in
+ * sync and nothing to save. Creatures in unloaded chunks do not count towards any limit since they aren't being
+ * updated anyway.
+ * <p></p>
+ * The main entry point is {@link SummonBudget#allocate(World, EntityLivingBase, int)}, which is called from
+ * {@link electroblob.wizardry.spell.SpellMinion SpellMinion} before any minions are spawned, followed by
+ * {@link Allocation#despawnOldest(int)} once they have been spawned.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public final class SummonBudget {
+
+	/** The value of a summon limit that means there is no limit. */
+	public static final int UNLIMITED = 0;
+
+	/** The NBT key for the world time at which a summoned creature was first spawned. This is stored in the entity's
+	 * persistent data (rather than using {@link Entity#ticksExisted}, which isn't saved) so that the oldest creatures
+	 * can still be identified after they have been unloaded and loaded again. */
+	private static final String SPAWN_TIME_KEY = Wizardry.MODID + "SpawnTime";
+
+	private SummonBudget(){} // No instances!
+
+	/** Set of constants for each of the possible behaviours when casting a minion spell would exceed a summon limit. */
+	public enum Policy {
+
+		/** The caster's oldest summoned creatures are despawned to make room for the new ones. */
+		DESPAWN_OLDEST("Despawn oldest"),
+		/** The spell fails and no creatures are summoned. */
+		REFUSE_CAST("Refuse cast");
+
+		/** Constant array storing the names of each of the constants, in the order they are declared. */
+		public static final String[] names;
+
+		static {
+			names = new String[values().length];
+			for(Policy policy : values()){
+				names[policy.ordinal()] = policy.name;
+			}
+		}
+
+		/** The readable name for this policy that will be displayed on the button in the config GUI. */
+		public final String name;
+
+		Policy(String name){
+			this.name = name;
+		}
+
+		/**
+		 * Gets a summon limit policy from its string name (ignoring case), or DESPAWN_OLDEST if the given name is not
+		 * a valid policy.
+		 */
+		public static Policy fromName(String name){
+
+			for(Policy policy : values()){
+				if(policy.name.equalsIgnoreCase(name)) return policy;
+			}
+
+			Wizardry.logger.info("Invalid string for the summon limit policy. Using default (despawn oldest) instead.");
+			return DESPAWN_OLDEST;
+		}
+	}
+
+	/**
+	 * Records the current world time as the time at which the given summoned creature was spawned, if it has not
+	 * already been recorded. Called from {@link ISummonedCreature#updateDelegate()}.
+	 */
+	public static void recordSpawnTime(Entity creature){
+		NBTTagCompound data = creature.getEntityData();
+		if(!data.hasKey(SPAWN_TIME_KEY)) data.setLong(SPAWN_TIME_KEY, creature.world.getTotalWorldTime());
+	}
+
+	/** Returns the world time at which the given summoned creature was spawned. */
+	private static long getSpawnTime(Entity creature){
+		NBTTagCompound data = creature.getEntityData();
+		// Creatures should always have this by now, but if not the best guess is how long they've been loaded for
+		return data.hasKey(SPAWN_TIME_KEY) ? data.getLong(SPAWN_TIME_KEY) : creature.world.getTotalWorldTime() - creature.ticksExisted;
+	}
+
+	/**
+	 * Returns a list of all the living summoned creatures currently loaded in the given world.
+	 * @param world The world to search in.
+	 * @return A list of summoned creatures, each of which is guaranteed to be an {@link Entity} that implements
+	 * {@link ISummonedCreature}.
+	 */
+	public static List<Entity> getSummonedCreatures(World world){
+		return world.loadedEntityList.stream().filter(e -> e instanceof ISummonedCreature && e.isEntityAlive())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns a map of owner UUIDs to the number of summoned creatures they own in the given world. Creatures without
+	 * an owner (e.g. those summoned by dispensers) are not included.
+	 */
+	public static Map<UUID, Integer> countByOwner(World world){
+
+		Map<UUID, Integer> counts = new HashMap<>();
+
+		for(Entity entity : getSummonedCreatures(world)){
+			UUID owner = ((ISummonedCreature)entity).getOwnerId();
+			if(owner != null) counts.merge(owner, 1, Integer::sum);
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Works out how many of the requested number of minions may be summoned by the given caster, according to the
+	 * summon limits in the config. If the policy is {@link Policy#DESPAWN_OLDEST}, as many of the caster's oldest
+	 * summoned creatures as necessary (and possible) are lined up to make room for the new ones; they are not actually
+	 * despawned until {@link Allocation#despawnOldest(int)} is called once the new minions have been spawned, so that
+	 * casters don't lose their existing minions if spawning the new ones fails. Only the caster's own creatures are
+	 * ever despawned, even when it is the team or dimension limit that is exceeded.
+	 * <p></p>
+	 * <i>This method should only be called server-side.</i>
+	 *
+	 * @param world The world in which the minions are to be summoned.
+	 * @param caster The entity summoning the minions, or null if they were summoned by a dispenser or command.
+	 * @param requested The number of minions the spell is trying to summon.
+	 * @return An {@link Allocation} holding the number of minions that may be summoned, between 0 and
+	 * {@code requested} inclusive. If the policy is {@link Policy#REFUSE_CAST}, this will either be 0 or
+	 * {@code requested}.
+	 */
+	public static Allocation allocate(World world, @Nullable EntityLivingBase caster, int requested){
+
+		int perPlayer = Wizardry.settings.summonLimitPerPlayer;
+		int perTeam = Wizardry.settings.summonLimitPerTeam;
+		int perDimension = Wizardry.settings.summonLimitPerDimension;
+
+		// Don't bother searching the entity list if there are no limits at all (the default)
+		if(requested <= 0 || (perPlayer == UNLIMITED && perTeam == UNLIMITED && perDimension == UNLIMITED)){
+			return new Allocation(Math.max(0, requested), requested, Collections.emptyList());
+		}
+
+		List<Entity> summons = getSummonedCreatures(world);
+
+		UUID owner = caster == null ? null : caster.getUniqueID();
+		Set<UUID> team = caster == null || caster.getTeam() == null ? null : getTeamMemberIDs(world, caster);
+
+		List<Entity> ownSummons = new ArrayList<>();
+		int teamCount = 0;
+
+		for(Entity entity : summons){
+			UUID id = ((ISummonedCreature)entity).getOwnerId();
+			if(id == null) continue;
+			if(id.equals(owner)) ownSummons.add(entity);
+			if(team != null && team.contains(id)) teamCount++;
+		}
+
+		// The number of existing creatures that would have to go in order to summon all the requested minions
+		int excess = 0;
+
+		if(perPlayer != UNLIMITED && owner != null) excess = Math.max(excess, ownSummons.size() + requested - perPlayer);
+		if(perTeam != UNLIMITED && team != null) excess = Math.max(excess, teamCount + requested - perTeam);
+		if(perDimension != UNLIMITED) excess = Math.max(excess, summons.size() + requested - perDimension);
+
+		if(excess <= 0) return new Allocation(requested, requested, Collections.emptyList());
+
+		if(Wizardry.settings.summonLimitPolicy == Policy.REFUSE_CAST) return new Allocation(0, 0, Collections.emptyList());
+
+		// Oldest first, i.e. the ones that were spawned the longest ago
+		ownSummons.sort(Comparator.comparingLong(SummonBudget::getSpawnTime));
+		List<Entity> toDespawn = ownSummons.subList(0, Math.min(excess, ownSummons.size()));
+
+		// If there weren't enough of the caster's own creatures to make room, summon as many as we can
+		return new Allocation(Math.max(0, requested - (excess - toDespawn.size())), requested - excess, toDespawn);
+	}
+
+	/** The result of {@link SummonBudget#allocate(World, EntityLivingBase, int)}. */
+	public static final class Allocation {
+
+		private final int count;
+		/** The number of minions that can be summoned without despawning anything. This is negative if the caster is
+		 * already over the limit (if it was lowered, for example), in which case the extra creatures go too. */
+		private final int free;
+		/** The caster's creatures that may be despawned to make room, oldest first. */
+		private final List<Entity> toDespawn;
+
+		private Allocation(int count, int free, List<Entity> toDespawn){
+			this.count = count;
+			this.free = free;
+			this.toDespawn = toDespawn;
+		}
+
+		/** Returns the number of minions that may be summoned. */
+		public int getCount(){
+			return count;
+		}
+
+		/**
+		 * Despawns as many of the caster's oldest summoned creatures as are needed to make room for the given number
+		 * of minions, which should be the number that actually got spawned (not the number that were allowed). Does
+		 * nothing if the new minions fit within the limits anyway, so this should always be called after spawning.
+		 */
+		public void despawnOldest(int spawned){
+
+			int needed = Math.min(spawned - free, toDespawn.size());
+
+			for(int i = 0; i < needed; i++){
+				Entity entity = toDespawn.get(i);
+				((ISummonedCreature)entity).onDespawn();
+				entity.setDead();
+			}
+		}
+	}
+
+	/** Returns the UUIDs of all online players on the same team as the given entity (including the entity itself). */
+	private static Set<UUID> getTeamMemberIDs(World world, EntityLivingBase entity){
+
+		Set<UUID> ids = new HashSet<>();
+		ids.add(entity.getUniqueID());
+
+		if(world.getMinecraftServer() != null){
+			for(EntityPlayer player : world.getMinecraftServer().getPlayerList().getPlayers()){
+				if(player.isOnSameTeam(entity)) ids.add(player.getUniqueID());
+			}
+		}
+
+		return ids;
+	}
+
+}
@@ -0,0 +1,106 @@
+package electroblob.wizardry.worldgen;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.gen.structure.template.ITemplateProcessor;
+import net.minecraft.world.gen.structure.template.Template;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Structure template processor that replaces block states according to a fixed mapping which doesn't depend on the
+ * position or on random chance (wood types, colours, elements, etc.). The replacement for each block state is only
+ * worked out the first time that state is encountered and is cached from then on, so instances should be reused for
+ * every structure with the same variant rather than being created each time.
+ * <p></p>
+ * Since the mapping doesn't depend on the position, it doesn't need to be done for every block each time a structure
+ * is placed. For mappings with only a few variants (wood types, elements), use
+ * {@link StateMappingTemplateProcessor#apply(Template, StateMappingTemplateProcessor)} to get a copy of the template
+ * with the replacements already made, then place that with only the remaining processors. Mappings with lots of
+ * variants should be used as a normal template processor instead, since copying a template costs far more than
+ * processing it once; blocks that aren't changed by the mapping are passed straight through without creating a new
+ * {@link Template.BlockInfo}.
+ * <p></p>
+ * Neither the instances nor the template cache are thread-safe, since structures are only ever generated on the
+ * server thread (see {@link WorldGenWizardryStructure}).
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public abstract class StateMappingTemplateProcessor implements ITemplateProcessor {
+
+	/** Copies of templates with state mappings already applied, for each original template and processor. This isn't
+	 * limited in size, since it only ever holds one copy per structure file for each variant of the low-variety
+	 * mappings it is used for. Templates are weakly referenced so they can be discarded along with the template
+	 * manager that loaded them. */
+	private static final Map<Template, Map<StateMappingTemplateProcessor, Template>> processedTemplates = new WeakHashMap<>();
+
+	/** Cache of block states to their replacements. Block states are singletons so identity comparison is fine. */
+	private final Map<IBlockState, IBlockState> replacements = new IdentityHashMap<>();
+
+	/** Returns the block state that the given state should be replaced with, or the same state if it should not be
+	 * changed. Only called once for each block state. */
+	protected abstract IBlockState getReplacement(IBlockState state);
+
+	/** Returns a new {@code StateMappingTemplateProcessor} which replaces block states according to the given mapping. */
+	public static StateMappingTemplateProcessor of(UnaryOperator<IBlockState> mapping){
+		return new StateMappingTemplateProcessor(){
+			@Override
+			protected IBlockState getReplacement(IBlockState state){
+				return mapping.apply(state);
+			}
+		};
+	}
+
+	/**
+	 * Returns a copy of the given template with the given processor applied to every block in it. Copies are cached,
+	 * so this only does any work the first time it is called for a particular template and processor (which is why
+	 * processors should be reused). The template's rotation and mirroring aren't applied until it is placed, so the
+	 * same copy can be used for every orientation. <i>Only use this for processors with a handful of variants</i>,
+	 * otherwise the cache will end up holding a copy of every template for each of them.
+	 * @param template The template to process
+	 * @param processor The processor to apply
+	 * @return The processed template. <b>Do not modify this</b>, it is shared between all structures of this variant.
+	 */
+	public static Template apply(Template template, StateMappingTemplateProcessor processor){
+		return processedTemplates.computeIfAbsent(template, t -> new HashMap<>())
+				.computeIfAbsent(processor, p -> process(template, p));
+	}
+
+	private static Template process(Template template, StateMappingTemplateProcessor processor){
+
+		// Template doesn't expose its blocks, but all the block states are in the palette when it is written to NBT
+		NBTTagCompound nbt = template.writeToNBT(new NBTTagCompound());
+		NBTTagList palette = nbt.getTagList("palette", Constants.NBT.TAG_COMPOUND);
+
+		for(int i = 0; i < palette.tagCount(); i++){
+			IBlockState state = NBTUtil.readBlockState(palette.getCompoundTagAt(i));
+			state = processor.getCachedReplacement(state);
+			// The palette may end up with duplicates in it, but that doesn't matter when reading it back in
+			palette.set(i, NBTUtil.writeBlockState(new NBTTagCompound(), state));
+		}
+
+		Template processed = new Template();
+		processed.read(nbt);
+		return processed;
+	}
+
+	private IBlockState getCachedReplacement(IBlockState state){
+		return replacements.computeIfAbsent(state, this::getReplacement);
+	}
+
+	@Nullable
+	@Override
+	public final Template.BlockInfo processBlock(World world, BlockPos pos, Template.BlockInfo info){
+		IBlockState state = getCachedReplacement(info.blockState);
+		return state == info.blockState ? info : new Template.BlockInfo(info.pos, state, info.tileentityData);
+	}
+
+}
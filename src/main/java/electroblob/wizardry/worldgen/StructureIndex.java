@@ -0,0 +1,139 @@
+package electroblob.wizardry.worldgen;
+
+import electroblob.wizardry.util.NBTExtras;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.World;
+import net.minecraft.world.gen.structure.MapGenStructureData;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import net.minecraftforge.common.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores the bounding boxes of all the structures of a single type that have been generated in a single world. Each
+ * bounding box is indexed under every chunk it covers, so overlap and point-in-structure checks only need to look at
+ * the chunks in question, regardless of how large the structures are.
+ * <p></p>
+ * The bounding boxes are persisted using a {@link MapGenStructureData} in the world's per-world storage, in the same
+ * format as vanilla structures (and previous versions of wizardry), so existing worlds load without any conversion.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+public class StructureIndex {
+
+	/** The saved data for this index, which is also where new structures get written to. */
+	private final MapGenStructureData data;
+
+	/** Map of chunk positions to the bounding boxes of all structures of this type that intersect that chunk. */
+	private final Long2ObjectMap<List<StructureBoundingBox>> chunks = new Long2ObjectOpenHashMap<>(1024);
+
+	private StructureIndex(MapGenStructureData data){
+		this.data = data;
+	}
+
+	/**
+	 * Loads the structure index with the given name for the given world from the world's per-world storage, or
+	 * creates a new one if it doesn't exist yet.
+	 * @param world The world to load the index for
+	 * @param name The name of the structure type, used as the name of the saved data
+	 * @return The resulting structure index
+	 */
+	public static StructureIndex load(World world, String name){
+
+		MapGenStructureData data = (MapGenStructureData)world.getPerWorldStorage().getOrLoadData(MapGenStructureData.class, name);
+
+		if(data == null){
+			data = new MapGenStructureData(name);
+			world.getPerWorldStorage().setData(name, data);
+		}
+
+		StructureIndex index = new StructureIndex(data);
+
+		NBTTagCompound nbt = data.getTagCompound();
+
+		for(String key : nbt.getKeySet()){
+
+			NBTBase tag = nbt.getTag(key);
+
+			if(tag.getId() == Constants.NBT.TAG_COMPOUND){
+
+				NBTTagCompound entry = (NBTTagCompound)tag;
+
+				if(entry.hasKey("ChunkX") && entry.hasKey("ChunkZ") && entry.hasKey("BB")){
+					index.addToIndex(new StructureBoundingBox(entry.getIntArray("BB")));
+				}
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Adds the given bounding box to this index and writes it to the saved data.
+	 * @param box The bounding box of the structure that was generated
+	 * @param chunkX The x-coordinate of the chunk that generated the structure
+	 * @param chunkZ The z-coordinate of the chunk that generated the structure
+	 */
+	public void add(StructureBoundingBox box, int chunkX, int chunkZ){
+
+		addToIndex(box);
+
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setInteger("ChunkX", chunkX);
+		tag.setInteger("ChunkZ", chunkZ);
+		NBTExtras.storeTagSafely(tag, "BB", box.toNBTTagIntArray());
+		data.writeInstance(tag, chunkX, chunkZ);
+		data.markDirty();
+	}
+
+	private void addToIndex(StructureBoundingBox box){
+		for(int x = box.minX >> 4; x <= box.maxX >> 4; x++){
+			for(int z = box.minZ >> 4; z <= box.maxZ >> 4; z++){
+				chunks.computeIfAbsent(ChunkPos.asLong(x, z), k -> new ArrayList<>(1)).add(box);
+			}
+		}
+	}
+
+	/** Returns true if the given bounding box intersects any of the structures in this index, false otherwise. */
+	public boolean intersects(StructureBoundingBox box){
+
+		for(int x = box.minX >> 4; x <= box.maxX >> 4; x++){
+			for(int z = box.minZ >> 4; z <= box.maxZ >> 4; z++){
+				for(StructureBoundingBox other : getBoxes(x, z)){
+					if(other.intersectsWith(box)) return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/** Returns true if any of the structures in this index intersect the given chunk, false otherwise. */
+	public boolean intersectsChunk(int chunkX, int chunkZ){
+		return chunks.containsKey(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	/** Returns true if the given position is inside any of the structures in this index, false otherwise. */
+	public boolean isVecInside(Vec3i vec){
+
+		for(StructureBoundingBox box : getBoxes(vec.getX() >> 4, vec.getZ() >> 4)){
+			if(box.isVecInside(vec)) return true;
+		}
+
+		return false;
+	}
+
+	private List<StructureBoundingBox> getBoxes(int chunkX, int chunkZ){
+		List<StructureBoundingBox> boxes = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+		return boxes == null ? Collections.emptyList() : boxes;
+	}
+
+}
@@ -0,0 +1,235 @@
+package electroblob.wizardry.worldgen;
+
+import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.util.NBTExtras;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import net.minecraft.world.gen.structure.template.Template;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.event.terraingen.PopulateChunkEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+/**
+ * Stores the pieces of wizardry structures that could not be placed when the structure was generated because they
+ * fall in chunks that haven't been generated yet. Placing them straight away would force those chunks to generate,
+ * causing cascading worldgen lag, so instead each piece is queued against its chunk and placed once that chunk has
+ * been populated. Pieces are placed a few at a time at the end of each world tick, and any that are still pending when
+ * the world is saved are stored in the save file. Each world has its own instance, retrieved using
+ * {@link StructurePlacementQueue#get(World)}.
+ * <p></p>
+ * Each piece records the random seed its structure was generated with, so the structure's variant (colours, elements,
+ * wood types, etc.) comes out the same in every piece. Things that should only happen once per structure are taken
+ * care of by the structure generators themselves; see {@link WorldGenWizardryStructure#isMainPiece(BlockPos, PlacementSettings)}.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber
+public class StructurePlacementQueue extends WorldSavedData {
+
+	public static final String NAME = Wizardry.MODID + "_structure_pieces";
+
+	/** The maximum number of structure pieces that will be placed in each world per tick. */
+	private static final int PIECES_PER_TICK = 2;
+
+	/** Map of chunk positions to the structure pieces waiting to be placed in that chunk. */
+	private final Long2ObjectMap<List<Piece>> pending = new Long2ObjectOpenHashMap<>();
+	/** Chunks that have been populated and are ready for their pending pieces to be placed, in the order they became
+	 * ready. */
+	private final Set<Long> ready = new LinkedHashSet<>();
+
+	// Required constructors
+	public StructurePlacementQueue(){
+		this(NAME);
+	}
+
+	public StructurePlacementQueue(String name){
+		super(name);
+	}
+
+	/** Returns the structure placement queue for this world, or creates a new instance if it doesn't exist yet. */
+	public static StructurePlacementQueue get(World world){
+
+		StructurePlacementQueue instance = (StructurePlacementQueue)world.getPerWorldStorage().getOrLoadData(StructurePlacementQueue.class, NAME);
+
+		if(instance == null){
+			instance = new StructurePlacementQueue();
+			world.getPerWorldStorage().setData(NAME, instance);
+		}
+
+		return instance;
+	}
+
+	/** Queues the given structure piece to be placed once its chunk has been populated. */
+	void add(World world, Piece piece){
+
+		long key = ChunkPos.asLong(piece.clip.minX >> 4, piece.clip.minZ >> 4);
+		pending.computeIfAbsent(key, k -> new ArrayList<>()).add(piece);
+
+		// Shouldn't normally happen since pieces are only queued for chunks that don't exist yet, but just in case
+		Chunk chunk = world.getChunkProvider().getLoadedChunk(piece.clip.minX >> 4, piece.clip.minZ >> 4);
+		if(chunk != null && chunk.isTerrainPopulated()) ready.add(key);
+
+		markDirty();
+	}
+
+	private void markReady(int chunkX, int chunkZ){
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		if(pending.containsKey(key)) ready.add(key);
+	}
+
+	/** Places up to {@link StructurePlacementQueue#PIECES_PER_TICK} pending pieces in chunks that are ready. */
+	private void update(World world){
+
+		int placed = 0;
+
+		for(Iterator<Long> iterator = ready.iterator(); iterator.hasNext() && placed < PIECES_PER_TICK;){
+
+			long key = iterator.next();
+			List<Piece> pieces = pending.get(key);
+
+			// The chunk might have been unloaded again since it became ready, in which case wait until it loads again
+			if(pieces != null && world.getChunkProvider().getLoadedChunk((int)key, (int)(key >> 32)) == null){
+				iterator.remove();
+				continue;
+			}
+
+			while(pieces != null && !pieces.isEmpty() && placed < PIECES_PER_TICK){
+				pieces.remove(pieces.size() - 1).place(world);
+				placed++;
+			}
+
+			if(pieces == null || pieces.isEmpty()){
+				pending.remove(key);
+				iterator.remove();
+			}
+		}
+
+		if(placed > 0) markDirty();
+	}
+
+	@Override
+	public void readFromNBT(NBTTagCompound nbt){
+		pending.clear();
+		for(Piece piece : NBTExtras.NBTToList(nbt.getTagList("pieces", Constants.NBT.TAG_COMPOUND), Piece::fromNBT)){
+			pending.computeIfAbsent(ChunkPos.asLong(piece.clip.minX >> 4, piece.clip.minZ >> 4), k -> new ArrayList<>()).add(piece);
+		}
+	}
+
+	@Override
+	public NBTTagCompound writeToNBT(NBTTagCompound nbt){
+		List<Piece> pieces = new ArrayList<>();
+		pending.values().forEach(pieces::addAll);
+		NBTExtras.storeTagSafely(nbt, "pieces", NBTExtras.listToNBT(pieces, Piece::toNBT));
+		return nbt;
+	}
+
+	@SubscribeEvent
+	public static void tick(TickEvent.WorldTickEvent event){
+		if(!event.world.isRemote && event.phase == TickEvent.Phase.END){
+			StructurePlacementQueue queue = get(event.world);
+			if(!queue.ready.isEmpty()) queue.update(event.world);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onPopulateChunkEvent(PopulateChunkEvent.Post event){
+		if(!event.getWorld().isRemote) get(event.getWorld()).markReady(event.getChunkX(), event.getChunkZ());
+	}
+
+	@SubscribeEvent
+	public static void onChunkLoadEvent(ChunkEvent.Load event){
+		// Covers chunks that were populated but then unloaded (or the game was closed) before their pieces were placed
+		if(!event.getWorld().isRemote && event.getChunk().isTerrainPopulated()){
+			get(event.getWorld()).markReady(event.getChunk().x, event.getChunk().z);
+		}
+	}
+
+	/** A single chunk-sized piece of a structure that is waiting to be placed. */
+	static class Piece {
+
+		private final String structureName;
+		private final ResourceLocation structureFile;
+		private final BlockPos origin;
+		private final Rotation rotation;
+		private final Mirror mirror;
+		/** The bounding box of the entire structure. */
+		private final StructureBoundingBox box;
+		/** The part of the structure's bounding box that this piece covers. */
+		private final StructureBoundingBox clip;
+		private final long seed;
+
+		Piece(String structureName, ResourceLocation structureFile, BlockPos origin, PlacementSettings settings,
+			  StructureBoundingBox clip, long seed){
+			this(structureName, structureFile, origin, settings.getRotation(), settings.getMirror(),
+					settings.getBoundingBox(), clip, seed);
+		}
+
+		private Piece(String structureName, ResourceLocation structureFile, BlockPos origin, Rotation rotation,
+					  Mirror mirror, StructureBoundingBox box, StructureBoundingBox clip, long seed){
+			this.structureName = structureName;
+			this.structureFile = structureFile;
+			this.origin = origin;
+			this.rotation = rotation;
+			this.mirror = mirror;
+			this.box = box;
+			this.clip = clip;
+			this.seed = seed;
+		}
+
+		private void place(World world){
+
+			WorldGenWizardryStructure generator = WorldGenWizardryStructure.byName(structureName);
+
+			if(generator == null){
+				Wizardry.logger.warn("Discarding pending piece of unknown structure type {}", structureName);
+				return;
+			}
+
+			Template template = world.getSaveHandler().getStructureTemplateManager().getTemplate(
+					world.getMinecraftServer(), structureFile);
+
+			PlacementSettings settings = new PlacementSettings().setRotation(rotation).setMirror(mirror).setBoundingBox(box);
+
+			generator.placePiece(world, origin, template, settings, clip, structureFile, new Random(seed));
+		}
+
+		private NBTTagCompound toNBT(){
+			NBTTagCompound nbt = new NBTTagCompound();
+			nbt.setString("structure", structureName);
+			nbt.setString("file", structureFile.toString());
+			NBTExtras.storeTagSafely(nbt, "origin", NBTUtil.createPosTag(origin));
+			nbt.setInteger("rotation", rotation.ordinal());
+			nbt.setInteger("mirror", mirror.ordinal());
+			NBTExtras.storeTagSafely(nbt, "box", box.toNBTTagIntArray());
+			NBTExtras.storeTagSafely(nbt, "clip", clip.toNBTTagIntArray());
+			nbt.setLong("seed", seed);
+			return nbt;
+		}
+
+		private static Piece fromNBT(NBTTagCompound nbt){
+			return new Piece(nbt.getString("structure"), new ResourceLocation(nbt.getString("file")),
+					NBTUtil.getPosFromTag(nbt.getCompoundTag("origin")), Rotation.values()[nbt.getInteger("rotation")],
+					Mirror.values()[nbt.getInteger("mirror")], new StructureBoundingBox(nbt.getIntArray("box")),
+					new StructureBoundingBox(nbt.getIntArray("clip")), nbt.getLong("seed"));
+		}
+	}
+
+}
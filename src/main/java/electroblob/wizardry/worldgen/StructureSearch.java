@@ -0,0 +1,229 @@
+package electroblob.wizardry.worldgen;
+
+import electroblob.wizardry.Wizardry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Handles asynchronous searches for the nearest structure of a particular type, as started by
+ * {@link WorldGenWizardryStructure#findNearestStructurePos(World, BlockPos, boolean, EntityPlayer, IntConsumer)}.
+ * <p></p>
+ * Searches spiral outwards from the starting chunk in the same way as
+ * {@link WorldGenWizardryStructure#getNearestStructurePos(World, BlockPos, boolean)}, but the random placement tests
+ * (which only depend on the world seed and the config) are done on a separate thread. Each time a ring of chunks
+ * contains possible positions, they are passed back to the main thread to check anything that requires world access,
+ * so the main thread only ever does a tiny amount of work per search.
+ * <p></p>
+ * Searches are cancelled if the future is cancelled, if the requesting player logs out or if the world is unloaded.
+ * Results for searches that don't require unexplored chunks are cached per world, so repeated searches from roughly
+ * the same place return immediately.
+ *
+ * @author Electroblob
+ * @since Wizardry 4.3
+ */
+@Mod.EventBusSubscriber
+public final class StructureSearch {
+
+	/** The maximum distance, in chunks, that structure searches will look for structures. */
+	public static final int MAX_RADIUS = 1000;
+	/** The number of rings of chunks searched between each progress update. */
+	private static final int PROGRESS_INTERVAL = 50;
+	/** The number of bits to shift chunk coordinates by to get the region used for caching results. Searches starting
+	 * in the same 8x8 chunk region will return the same cached result. */
+	private static final int REGION_SHIFT = 3;
+
+	/** Single worker thread shared by all searches. Searches are run one at a time, which is plenty since they're rare. */
+	private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Wizardry structure search");
+		thread.setDaemon(true); // Don't stop the game from closing
+		return thread;
+	});
+
+	/** All searches that haven't finished yet. Only modified from the main thread. */
+	private static final List<StructureSearch> activeSearches = new ArrayList<>();
+
+	/** Cached search results for each world, keyed by structure name and then by region. */
+	private static final Map<World, Map<String, Long2ObjectMap<Optional<BlockPos>>>> cache = new WeakHashMap<>();
+
+	private final WorldGenWizardryStructure generator;
+	private final World world;
+	private final ChunkPos start;
+	private final boolean findUnexplored;
+	@Nullable private final UUID requester;
+	@Nullable private final IntConsumer progress;
+
+	private final CompletableFuture<BlockPos> future = new CompletableFuture<>();
+
+	private StructureSearch(WorldGenWizardryStructure generator, World world, ChunkPos start, boolean findUnexplored,
+							@Nullable UUID requester, @Nullable IntConsumer progress){
+		this.generator = generator;
+		this.world = world;
+		this.start = start;
+		this.findUnexplored = findUnexplored;
+		this.requester = requester;
+		this.progress = progress;
+	}
+
+	/** Starts a new search. Must be called from the main server thread. See
+	 * {@link WorldGenWizardryStructure#findNearestStructurePos(World, BlockPos, boolean, EntityPlayer, IntConsumer)}. */
+	static CompletableFuture<BlockPos> start(WorldGenWizardryStructure generator, World world, BlockPos pos,
+											 boolean findUnexplored, @Nullable EntityPlayer requester, @Nullable IntConsumer progress){
+
+		if(world.isRemote) throw new IllegalArgumentException("Structure searches can only be run server-side");
+
+		ChunkPos start = new ChunkPos(pos);
+
+		if(!findUnexplored){
+			Optional<BlockPos> result = getCache(world, generator).get(getRegionKey(start));
+			// Optional.orElse(null) is fine here, it just means a previous search found nothing
+			if(result != null) return CompletableFuture.completedFuture(result.orElse(null));
+		}
+
+		StructureSearch search = new StructureSearch(generator, world, start, findUnexplored,
+				requester == null ? null : requester.getUniqueID(), progress);
+
+		activeSearches.add(search);
+		// Removing on completion also covers cancellation, which completes the future exceptionally
+		search.future.whenComplete((result, throwable) -> activeSearches.remove(search));
+
+		executor.execute(search::run);
+
+		return search.future;
+	}
+
+	/** Runs this search. Called on the search thread. */
+	private void run(){
+
+		MinecraftServer server = world.getMinecraftServer();
+		if(server == null) return;
+
+		// Each search needs its own random, since the generator's one is not thread-safe
+		Random random = new Random();
+
+		List<ChunkPos> candidates = new ArrayList<>();
+
+		try{
+
+			for(int ring = 0; ring <= MAX_RADIUS; ring++){
+
+				if(future.isDone()) return; // Cancelled
+
+				candidates.clear();
+
+				for(int dx = -ring; dx <= ring; dx++){
+					for(int dz = -ring; dz <= ring; dz++){
+						// Only the outside of each ring, the inside has already been searched
+						if(dx != -ring && dx != ring && dz != -ring && dz != ring) continue;
+						int x = start.x + dx, z = start.z + dz;
+						if(generator.couldGenerate(random, world, x, z)) candidates.add(new ChunkPos(x, z));
+					}
+				}
+
+				if(!candidates.isEmpty()){
+					// Copied because the list gets reused for the next ring
+					List<ChunkPos> ringCandidates = new ArrayList<>(candidates);
+					ChunkPos found = waitFor(server.callFromMainThread(() -> checkCandidates(ringCandidates)));
+					if(found != null){
+						finish(server, new BlockPos((found.x << 4) + 8, 64, (found.z << 4) + 8));
+						return;
+					}
+				}
+
+				if(progress != null && ring % PROGRESS_INTERVAL == 0){
+					int searched = ring;
+					server.addScheduledTask(() -> { if(!future.isDone()) progress.accept(searched); });
+				}
+			}
+
+			finish(server, null);
+
+		}catch(ExecutionException e){
+			Wizardry.logger.error("Error whilst searching for nearest " + generator.getStructureName(), e);
+			server.addScheduledTask(() -> future.completeExceptionally(e.getCause()));
+		}catch(RuntimeException e){
+			// Most likely from a generator's canGenerate method; if the future isn't completed the search never ends
+			Wizardry.logger.error("Error whilst searching for nearest " + generator.getStructureName(), e);
+			server.addScheduledTask(() -> future.completeExceptionally(e));
+		}
+	}
+
+	/** Returns the first of the given chunks that passes the world-dependent checks, or null if none of them do.
+	 * Called on the main thread. */
+	@Nullable
+	private ChunkPos checkCandidates(List<ChunkPos> candidates){
+
+		if(future.isDone()) return null;
+
+		for(ChunkPos chunk : candidates){
+			if(generator.isValidLocation(world, chunk.x, chunk.z)
+					&& (!findUnexplored || !world.isChunkGeneratedAt(chunk.x, chunk.z))) return chunk;
+		}
+
+		return null;
+	}
+
+	/** Waits for the given main-thread task to finish, giving up if this search is cancelled in the meantime (which
+	 * could mean the server is shutting down and the task will never run). */
+	@Nullable
+	private ChunkPos waitFor(Future<ChunkPos> task) throws ExecutionException{
+
+		while(!future.isDone()){
+			try{
+				return task.get(1, TimeUnit.SECONDS);
+			}catch(TimeoutException | InterruptedException ignored){}
+		}
+
+		return null;
+	}
+
+	/** Caches the given result (if applicable) and completes the future on the main thread. */
+	private void finish(MinecraftServer server, @Nullable BlockPos result){
+		server.addScheduledTask(() -> {
+			if(future.isDone()) return;
+			if(!findUnexplored) getCache(world, generator).put(getRegionKey(start), Optional.ofNullable(result));
+			future.complete(result);
+		});
+	}
+
+	private static Long2ObjectMap<Optional<BlockPos>> getCache(World world, WorldGenWizardryStructure generator){
+		return cache.computeIfAbsent(world, w -> new HashMap<>())
+				.computeIfAbsent(generator.getStructureName(), k -> new Long2ObjectOpenHashMap<>());
+	}
+
+	private static long getRegionKey(ChunkPos chunk){
+		return ChunkPos.asLong(chunk.x >> REGION_SHIFT, chunk.z >> REGION_SHIFT);
+	}
+
+	private static void cancelAll(Predicate<StructureSearch> predicate){
+		// Copied because cancelling a search removes it from the list
+		for(StructureSearch search : new ArrayList<>(activeSearches)){
+			if(predicate.test(search)) search.future.cancel(false);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onPlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event){
+		cancelAll(s -> event.player.getUniqueID().equals(s.requester));
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnloadEvent(WorldEvent.Unload event){
+		cancelAll(s -> s.world == event.getWorld());
+	}
+
+}
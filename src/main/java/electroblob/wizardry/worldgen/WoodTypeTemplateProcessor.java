@@ -5,17 +5,18 @@ import electroblob.wizardry.util.BlockUtils;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockPlanks;
 import net.minecraft.block.BlockWoodSlab;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
-import net.minecraft.world.gen.structure.template.ITemplateProcessor;
-import net.minecraft.world.gen.structure.template.Template;
 
-import javax.annotation.Nullable;
 import java.util.EnumMap;
+import java.util.Map;
 
-/** Structure template processor that switches all wood in the structure to a certain given wood type. */
-public class WoodTypeTemplateProcessor implements ITemplateProcessor {
+/** Structure template processor that switches all wood in the structure to a certain given wood type. Use
+ * {@link WoodTypeTemplateProcessor#get(BlockPlanks.EnumType)} to get the shared instance for each wood type. */
+public class WoodTypeTemplateProcessor extends StateMappingTemplateProcessor {
+
+	/** Shared instances for each wood type, so the replacements only need to be worked out once per game. */
+	private static final Map<BlockPlanks.EnumType, WoodTypeTemplateProcessor> instances = new EnumMap<>(BlockPlanks.EnumType.class);
 
 	private final BlockPlanks.EnumType woodType;
 
@@ -84,31 +85,35 @@ public class WoodTypeTemplateProcessor implements ITemplateProcessor {
 		LECTERNS.put(BlockPlanks.EnumType.DARK_OAK, 	WizardryBlocks.dark_oak_lectern);
 	}
 
-	@Nullable
+	/** Returns the shared {@code WoodTypeTemplateProcessor} for the given wood type. */
+	public static WoodTypeTemplateProcessor get(BlockPlanks.EnumType woodType){
+		return instances.computeIfAbsent(woodType, WoodTypeTemplateProcessor::new);
+	}
+
 	@Override
-	public Template.BlockInfo processBlock(World world, BlockPos pos, Template.BlockInfo info){
+	protected IBlockState getReplacement(IBlockState state){
 
 		// Why do these each have their own property key?
-		if(info.blockState.getBlock() instanceof BlockPlanks){ // This covers gilded wood too
-			return new Template.BlockInfo(info.pos, info.blockState.withProperty(BlockPlanks.VARIANT, woodType), info.tileentityData);
-		}else if(info.blockState.getBlock() instanceof BlockWoodSlab){
-			return new Template.BlockInfo(info.pos, info.blockState.withProperty(BlockWoodSlab.VARIANT, woodType), info.tileentityData);
+		if(state.getBlock() instanceof BlockPlanks){ // This covers gilded wood too
+			return state.withProperty(BlockPlanks.VARIANT, woodType);
+		}else if(state.getBlock() instanceof BlockWoodSlab){
+			return state.withProperty(BlockWoodSlab.VARIANT, woodType);
 		// This is a mess, no wonder the flattening happened
-		}else if(DOORS.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(DOORS.get(woodType), info.blockState), info.tileentityData);
-		}else if(STAIRS.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(STAIRS.get(woodType), info.blockState), info.tileentityData);
-		}else if(FENCES.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(FENCES.get(woodType), info.blockState), info.tileentityData);
-		}else if(FENCE_GATES.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(FENCE_GATES.get(woodType), info.blockState), info.tileentityData);
-		}else if(BOOKSHELVES.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(BOOKSHELVES.get(woodType), info.blockState), info.tileentityData);
-		}else if(LECTERNS.containsValue(info.blockState.getBlock())){
-			return new Template.BlockInfo(info.pos, BlockUtils.copyState(LECTERNS.get(woodType), info.blockState), info.tileentityData);
+		}else if(DOORS.containsValue(state.getBlock())){
+			return BlockUtils.copyState(DOORS.get(woodType), state);
+		}else if(STAIRS.containsValue(state.getBlock())){
+			return BlockUtils.copyState(STAIRS.get(woodType), state);
+		}else if(FENCES.containsValue(state.getBlock())){
+			return BlockUtils.copyState(FENCES.get(woodType), state);
+		}else if(FENCE_GATES.containsValue(state.getBlock())){
+			return BlockUtils.copyState(FENCE_GATES.get(woodType), state);
+		}else if(BOOKSHELVES.containsValue(state.getBlock())){
+			return BlockUtils.copyState(BOOKSHELVES.get(woodType), state);
+		}else if(LECTERNS.containsValue(state.getBlock())){
+			return BlockUtils.copyState(LECTERNS.get(woodType), state);
 		}
 
-		return info;
+		return state;
 	}
 
 }
@@ -41,12 +41,16 @@ public class WorldGenLibraryRuins extends WorldGenSurfaceStructure {
 	@Override
 	public boolean canGenerate(Random random, World world, int chunkX, int chunkZ){
 		return ArrayUtils.contains(Wizardry.settings.libraryDimensions, world.provider.getDimension())
-				// +8 for the anti-cascading offset, and +8 for the middle of the generated area makes +16 in total
-				&& BiomeDictionary.getTypes(world.getBiome(new BlockPos(chunkX * 16 + 16, 0, chunkZ * 16 + 16)))
-				.stream().anyMatch(BIOME_TYPES::contains)
 				&& Wizardry.settings.libraryRarity > 0 && random.nextInt(Wizardry.settings.libraryRarity) == 0;
 	}
 
+	@Override
+	public boolean isValidLocation(World world, int chunkX, int chunkZ){
+		// +8 for the anti-cascading offset, and +8 for the middle of the generated area makes +16 in total
+		return BiomeDictionary.getTypes(world.getBiome(new BlockPos(chunkX * 16 + 16, 0, chunkZ * 16 + 16)))
+				.stream().anyMatch(BIOME_TYPES::contains);
+	}
+
 	@Override
 	public ResourceLocation getStructureFile(Random random){
 		return Wizardry.settings.libraryFiles[random.nextInt(Wizardry.settings.libraryFiles.length)];
@@ -77,8 +81,6 @@ public class WorldGenLibraryRuins extends WorldGenSurfaceStructure {
 					}
 					return i;
 				},
-				// Wood type
-				new WoodTypeTemplateProcessor(woodType),
 				// Mossifier
 				new MossifierTemplateProcessor(mossiness, 0.04f, origin.getY() + 1),
 				// Stone brick smasher-upper
@@ -92,9 +94,11 @@ public class WorldGenLibraryRuins extends WorldGenSurfaceStructure {
 				}
 		);
 
-		template.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
+		// Wood type (doesn't affect any of the other processors, so it can be applied beforehand)
+		StateMappingTemplateProcessor.apply(template, WoodTypeTemplateProcessor.get(woodType))
+				.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
 
-		WizardryAntiqueAtlasIntegration.markLibrary(world, origin.getX(), origin.getZ(), false);
+		if(isMainPiece(origin, settings)) WizardryAntiqueAtlasIntegration.markLibrary(world, origin.getX(), origin.getZ(), false);
 	}
 
 }
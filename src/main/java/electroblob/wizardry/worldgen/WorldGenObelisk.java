@@ -14,11 +14,11 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.WeightedSpawnerEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraft.world.gen.structure.template.ITemplateProcessor;
 import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Random;
 
@@ -28,6 +28,9 @@ public class WorldGenObelisk extends WorldGenSurfaceStructure {
 
 	private static final ResourceLocation REMNANT_ID = new ResourceLocation(Wizardry.MODID, "remnant");
 
+	/** Runestone element processors for each element, reused between structures. */
+	private final Map<Element, StateMappingTemplateProcessor> runestoneProcessors = new EnumMap<>(Element.class);
+
 	@Override
 	public String getStructureName(){
 		return "obelisk";
@@ -59,12 +62,13 @@ public class WorldGenObelisk extends WorldGenSurfaceStructure {
 
 		final Element element = Element.values()[1 + random.nextInt(Element.values().length-1)];
 
-		ITemplateProcessor processor = (w, p, i) -> i.blockState.getBlock() instanceof BlockRunestone ? new Template.BlockInfo(
-				i.pos, i.blockState.withProperty(BlockRunestone.ELEMENT, element), i.tileentityData) : i;
+		StateMappingTemplateProcessor processor = runestoneProcessors.computeIfAbsent(element, e -> StateMappingTemplateProcessor.of(
+				s -> s.getBlock() instanceof BlockRunestone ? s.withProperty(BlockRunestone.ELEMENT, e) : s));
 
-		template.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
+		// Nothing else needs processing so no processor is required when placing it
+		StateMappingTemplateProcessor.apply(template, processor).addBlocksToWorld(world, origin, null, settings, 2 | 16);
 
-		WizardryAntiqueAtlasIntegration.markObelisk(world, origin.getX(), origin.getZ());
+		if(isMainPiece(origin, settings)) WizardryAntiqueAtlasIntegration.markObelisk(world, origin.getX(), origin.getZ());
 
 		// Mob spawner
 		Map<BlockPos, String> dataBlocks = template.getDataBlocks(origin, settings);
@@ -12,11 +12,11 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraft.world.gen.structure.template.ITemplateProcessor;
 import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
@@ -25,6 +25,9 @@ public class WorldGenShrine extends WorldGenSurfaceStructure {
 
 	private static final String CORE_DATA_BLOCK_TAG = "core";
 
+	/** Runestone element processors for each element, reused between structures. */
+	private final Map<Element, StateMappingTemplateProcessor> runestoneProcessors = new EnumMap<>(Element.class);
+
 	@Override
 	public String getStructureName(){
 		return "shrine";
@@ -51,12 +54,13 @@ public class WorldGenShrine extends WorldGenSurfaceStructure {
 
 		final Element element = Element.values()[1 + random.nextInt(Element.values().length-1)];
 
-		ITemplateProcessor processor = (w, p, i) -> i.blockState.getBlock() instanceof BlockRunestone ? new Template.BlockInfo(
-				i.pos, i.blockState.withProperty(BlockRunestone.ELEMENT, element), i.tileentityData) : i;
+		StateMappingTemplateProcessor processor = runestoneProcessors.computeIfAbsent(element, e -> StateMappingTemplateProcessor.of(
+				s -> s.getBlock() instanceof BlockRunestone ? s.withProperty(BlockRunestone.ELEMENT, e) : s));
 
-		template.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
+		// Nothing else needs processing so no processor is required when placing it
+		StateMappingTemplateProcessor.apply(template, processor).addBlocksToWorld(world, origin, null, settings, 2 | 16);
 
-		WizardryAntiqueAtlasIntegration.markShrine(world, origin.getX(), origin.getZ());
+		if(isMainPiece(origin, settings)) WizardryAntiqueAtlasIntegration.markShrine(world, origin.getX(), origin.getZ());
 
 		// Shrine core
 		Map<BlockPos, String> dataBlocks = template.getDataBlocks(origin, settings);
@@ -74,6 +78,8 @@ public class WorldGenShrine extends WorldGenSurfaceStructure {
 				if(container != null){
 
 					container.getTileData().setUniqueId(ArcaneLock.NBT_KEY, new UUID(0, 0)); // Nil UUID
+					// This piece may be placed after the chunk has already been sent to players (if it was deferred)
+					ArcaneLock.syncLock(world, container.getPos(), true);
 
 					if(core instanceof TileEntityShrineCore){
 						((TileEntityShrineCore)core).linkContainer(container);
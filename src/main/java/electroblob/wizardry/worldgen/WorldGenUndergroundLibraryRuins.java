@@ -29,8 +29,10 @@ public class WorldGenUndergroundLibraryRuins extends WorldGenUndergroundStructur
 	private final Set<Block> nonReplaceableBlocks;
 
 	public WorldGenUndergroundLibraryRuins(){
+		// All the bookshelves, since the wood type has already been applied by the time these are checked
 		nonReplaceableBlocks = ImmutableSet.of(WizardryBlocks.imbuement_altar, WizardryBlocks.receptacle,
-				WizardryBlocks.oak_bookshelf);
+				WizardryBlocks.oak_bookshelf, WizardryBlocks.spruce_bookshelf, WizardryBlocks.birch_bookshelf,
+				WizardryBlocks.jungle_bookshelf, WizardryBlocks.acacia_bookshelf, WizardryBlocks.dark_oak_bookshelf);
 	}
 
 	@Override
@@ -81,8 +83,6 @@ public class WorldGenUndergroundLibraryRuins extends WorldGenUndergroundStructur
 					}
 					return i;
 				},
-				// Wood type
-				new WoodTypeTemplateProcessor(woodType),
 				// Mossifier
 				new MossifierTemplateProcessor(mossiness, 0.04f, origin.getY() + 1),
 				// Stone brick smasher-upper
@@ -96,9 +96,11 @@ public class WorldGenUndergroundLibraryRuins extends WorldGenUndergroundStructur
 				}
 		);
 
-		template.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
+		// Wood type (doesn't affect any of the other processors, so it can be applied beforehand)
+		StateMappingTemplateProcessor.apply(template, WoodTypeTemplateProcessor.get(woodType))
+				.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
 
-		WizardryAntiqueAtlasIntegration.markLibrary(world, origin.getX(), origin.getZ(), true);
+		if(isMainPiece(origin, settings)) WizardryAntiqueAtlasIntegration.markLibrary(world, origin.getX(), origin.getZ(), true);
 	}
 
 }
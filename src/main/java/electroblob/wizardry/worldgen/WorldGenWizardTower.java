@@ -2,6 +2,7 @@ package electroblob.wizardry.worldgen;
 
 import com.google.common.collect.ImmutableMap;
 import electroblob.wizardry.Wizardry;
+import electroblob.wizardry.data.WizardTowerData;
 import electroblob.wizardry.entity.living.EntityEvilWizard;
 import electroblob.wizardry.entity.living.EntityWizard;
 import electroblob.wizardry.integration.antiqueatlas.WizardryAntiqueAtlasIntegration;
@@ -14,6 +15,7 @@ import net.minecraft.init.Blocks;
 import net.minecraft.item.EnumDyeColor;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
@@ -22,23 +24,26 @@ import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import net.minecraftforge.common.BiomeDictionary;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
+import javax.annotation.Nullable;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.UUID;
 
 public class WorldGenWizardTower extends WorldGenSurfaceStructure {
 
-	// TODO: Add wizard towers to the /locate command
-	// This requires some careful manipulation of Random objects to replicate the positions exactly for the current
-	// world. See the end of ChunkGeneratorOverworld for the relevant methods.
-
 	private static final String WIZARD_DATA_BLOCK_TAG = "wizard";
 	private static final String EVIL_WIZARD_DATA_BLOCK_TAG = "evil_wizard";
 
 	private final Map<BiomeDictionary.Type, IBlockState> specialWallBlocks;
 
+	/** Roof colour and wall material processors for each combination of the two, reused between structures. */
+	private final Map<Pair<EnumDyeColor, IBlockState>, StateMappingTemplateProcessor> materialProcessors = new HashMap<>();
+
 	public WorldGenWizardTower(){
 		// These are initialised here because it's a convenient point after the blocks are registered
 		specialWallBlocks = ImmutableMap.of(
@@ -86,26 +91,35 @@ public class WorldGenWizardTower extends WorldGenSurfaceStructure {
 
 		final Set<BlockPos> blocksPlaced = new HashSet<>();
 
+		// Wood type (only 6 of these, so the template can be processed in advance)
+		Template processedTemplate = StateMappingTemplateProcessor.apply(template, WoodTypeTemplateProcessor.get(woodType));
+
 		ITemplateProcessor processor = new MultiTemplateProcessor(true,
-				// Roof colour
-				(w, p, i) -> i.blockState.getBlock() instanceof BlockStainedHardenedClay ? new Template.BlockInfo(
-						i.pos, i.blockState.withProperty(BlockStainedHardenedClay.COLOR, colour), i.tileentityData) : i,
-				// Wall material
-				(w, p, i) -> i.blockState.getBlock() == Blocks.COBBLESTONE ? new Template.BlockInfo(i.pos,
-						wallMaterial, i.tileentityData) : i,
-				// Wood type
-				new WoodTypeTemplateProcessor(woodType),
+				// Roof colour and wall material (too many combinations to process the template in advance for each)
+				materialProcessors.computeIfAbsent(Pair.of(colour, wallMaterial), k -> StateMappingTemplateProcessor.of(
+						s -> s.getBlock() instanceof BlockStainedHardenedClay ? s.withProperty(BlockStainedHardenedClay.COLOR, colour)
+								: s.getBlock() == Blocks.COBBLESTONE ? wallMaterial : s)),
 				// Mossifier
 				new MossifierTemplateProcessor(mossiness, 0.04f, origin.getY() + 1),
-				// Block recording (the process() method doesn't get called for structure voids)
-				(w, p, i) -> {if(i.blockState.getBlock() != Blocks.AIR) blocksPlaced.add(p); return i;}
+				// Block recording (the process() method doesn't get called for structure voids, but it does get called
+				// for blocks outside the bounding box, which belong to other pieces)
+				(w, p, i) -> {
+					if(i.blockState.getBlock() != Blocks.AIR && (settings.getBoundingBox() == null
+							|| settings.getBoundingBox().isVecInside(p))) blocksPlaced.add(p);
+					return i;
+				}
 		);
 
-		template.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
+		processedTemplate.addBlocksToWorld(world, origin, processor, settings, 2 | 16);
 
-		WizardryAntiqueAtlasIntegration.markTower(world, origin.getX(), origin.getZ());
+		// The tower may be placed in several pieces, and the wizard may not even be in this one, so each piece works
+		// out who the tower belongs to and registers its own blocks
+		UUID owner = getWizardUUID(world, origin, template, settings);
+		if(owner != null) WizardTowerData.get(world).addTowerBlocks(owner, blocksPlaced);
 
-		// Wizard spawning
+		if(isMainPiece(origin, settings)) WizardryAntiqueAtlasIntegration.markTower(world, origin.getX(), origin.getZ());
+
+		// Wizard spawning (data blocks are only returned for the piece that contains them)
 		Map<BlockPos, String> dataBlocks = template.getDataBlocks(origin, settings);
 
 		for(Map.Entry<BlockPos, String> entry : dataBlocks.entrySet()){
@@ -116,8 +130,8 @@ public class WorldGenWizardTower extends WorldGenSurfaceStructure {
 
 				EntityWizard wizard = new EntityWizard(world);
 				wizard.setLocationAndAngles(vec.x, vec.y, vec.z, 0, 0);
+				if(owner != null) wizard.setUniqueId(owner);
 				wizard.onInitialSpawn(world.getDifficultyForLocation(origin), null);
-				wizard.setTowerBlocks(blocksPlaced);
 				world.spawnEntity(wizard);
 
 			}else if(entry.getValue().equals(EVIL_WIZARD_DATA_BLOCK_TAG)){
@@ -135,6 +149,18 @@ public class WorldGenWizardTower extends WorldGenSurfaceStructure {
 		}
 	}
 
+	/** Returns the UUID of the wizard that owns the given tower, or null if it doesn't have a (friendly) wizard. This
+	 * is worked out from the position of the wizard's data block in the world, so every piece of the tower gets the
+	 * same UUID without it needing to be stored anywhere. */
+	@Nullable
+	private static UUID getWizardUUID(World world, BlockPos origin, Template template, PlacementSettings settings){
+		// Need the data blocks for the whole tower here, not just the ones in this piece
+		PlacementSettings wholeTower = settings.copy().setBoundingBox(null);
+		return template.getDataBlocks(origin, wholeTower).entrySet().stream()
+				.filter(e -> e.getValue().equals(WIZARD_DATA_BLOCK_TAG)).findFirst()
+				.map(e -> MathHelper.getRandomUUID(new Random(world.getSeed() ^ e.getKey().toLong()))).orElse(null);
+	}
+
 	private static float getBiomeMossiness(Biome biome){
 		if(BiomeDictionary.hasType(biome, BiomeDictionary.Type.DENSE)) 		return 0.7f;
 		if(BiomeDictionary.hasType(biome, BiomeDictionary.Type.JUNGLE)) 	return 0.7f;
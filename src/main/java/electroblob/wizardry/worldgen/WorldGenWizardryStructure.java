@@ -2,35 +2,30 @@ package electroblob.wizardry.worldgen;
 
 import electroblob.wizardry.Wizardry;
 import electroblob.wizardry.registry.WizardryAdvancementTriggers;
-import electroblob.wizardry.util.NBTExtras;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.nbt.NBTBase;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.Mirror;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Rotation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
-import net.minecraft.util.math.Vec3i;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.gen.IChunkGenerator;
-import net.minecraft.world.gen.structure.MapGenStructureData;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
 import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
-import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.common.IWorldGenerator;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 
 /**
  * Base structure generation class which handles code common to all wizardry's structures. This class was generalised
@@ -45,15 +40,17 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 	/** Static map used to store all structure generators for the purpose of advancements. */
 	private static final Map<String, WorldGenWizardryStructure> generators = new HashMap<>();
 
+	/** Map of players to the chunk they were in when they were last checked and found not to be anywhere near a
+	 * structure. Players remaining in that chunk don't need checking again until they move to a different chunk. */
+	private static final Map<EntityPlayer, Long> playersAwayFromStructures = new WeakHashMap<>();
+
 	/** A random instance used solely for the purpose of emulating the world generation to predict locations. */
 	private final Random random;
 
-	private World world;
-
-	private MapGenStructureData structureData;
-
-	/** Stores the bounding boxes of all structures of this type that have been generated so far. */
-	protected final Long2ObjectMap<StructureBoundingBox> structureMap = new Long2ObjectOpenHashMap<>(1024);
+	/** Stores the bounding boxes of all structures of this type that have been generated so far, for each world. */
+	// Weak keys so unloaded worlds aren't kept in memory. Like everything else to do with generating structures, this
+	// is only ever accessed from the server thread; the structure search thread only uses canGenerate.
+	private final Map<World, StructureIndex> indices = new WeakHashMap<>();
 
 	public WorldGenWizardryStructure(){
 		random = new Random(); // Seed will be set later
@@ -85,9 +82,20 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 
 	/** Pre-check for whether the structure can generate. Usually this is just used for randomisation so that
 	 * calculations are only performed for chunks that will generate a structure; most placement-specific stuff
-	 * can just be done using a check inside {@link WorldGenWizardryStructure#spawnStructure(Random, World, BlockPos, Template, PlacementSettings, ResourceLocation)} */
+	 * can just be done using a check inside {@link WorldGenWizardryStructure#spawnStructure(Random, World, BlockPos, Template, PlacementSettings, ResourceLocation)}
+	 * <p></p>
+	 * <b>This method may be called from the structure search thread</b>, so it must only depend on the given random
+	 * number generator, the config and the world's provider. Anything that needs to access the world itself (biomes,
+	 * for example) should go in {@link WorldGenWizardryStructure#isValidLocation(World, int, int)} instead. */
 	public abstract boolean canGenerate(Random random, World world, int chunkX, int chunkZ);
 
+	/** Second pre-check for whether the structure can generate, for checks that need to access the world and hence can
+	 * only be done from the main thread. Only called if {@link WorldGenWizardryStructure#canGenerate(Random, World, int, int)}
+	 * returns true. By default this always returns true. */
+	public boolean isValidLocation(World world, int chunkX, int chunkZ){
+		return true;
+	}
+
 	/**
 	 * Picks a random position within the given chunk at which to generate the given template, returning null if that
 	 * position is found to be unsuitable. In an effort to make structure rarity more uniform, they now get a number of
@@ -123,7 +131,9 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 	 * @param origin The origin coordinates of the structure in the world, already set to a valid position and adjusted
 	 *               so that it is the NW corner (-X, -Z) regardless of rotation/mirror settings
 	 * @param template The template to be generated
-	 * @param settings The placement settings for the structure
+	 * @param settings The placement settings for the structure. The bounding box of these settings may only cover part
+	 *                 of the structure, since structures that cross into chunks that haven't been generated yet are
+	 *                 placed in several pieces (see {@link WorldGenWizardryStructure#isMainPiece(BlockPos, PlacementSettings)}).
 	 * @param structureFile The location of the chosen structure file, for logging purposes
 	 */
 	public abstract void spawnStructure(Random random, World world, BlockPos origin, Template template, PlacementSettings settings, ResourceLocation structureFile);
@@ -133,7 +143,8 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 	 * {@link WorldGenSurfaceStructure} uses this to clean up floating trees.
 	 * @param random The random number generator that was used to generate the structure
 	 * @param world The world in which the structure was generated
-	 * @param settings The placement settings that the structure was generated with (including its bounding box)
+	 * @param settings The placement settings that the structure was generated with (including its bounding box, which
+	 *                 may only cover the piece of the structure that was just placed)
 	 */
 	protected void postGenerate(Random random, World world, PlacementSettings settings){}
 
@@ -145,9 +156,7 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 		// Don't need to worry about overflows because they'll just wrap around, which is fine for this purpose
 		random.setSeed(random.nextLong() + getRandomSeedModifier());
 
-		initializeStructureData(world); // Load the data from the save file if it isn't already loaded
-
-		if(canGenerate(random, world, chunkX, chunkZ)){
+		if(canGenerate(random, world, chunkX, chunkZ) && isValidLocation(world, chunkX, chunkZ)){
 
 			ResourceLocation structureFile = getStructureFile(random);
 
@@ -187,8 +196,7 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 
 			if(!Wizardry.settings.fastWorldgen){
 				for(WorldGenWizardryStructure generator : generators.values()){
-					StructureBoundingBox otherbox = generator.structureMap.get(ChunkPos.asLong(origin.getX() >> 4, origin.getZ() >> 4));
-					if(otherbox != null && otherbox.intersectsWith(box)) return;
+					if(generator.getStructureIndex(world).intersects(box)) return;
 				}
 			}
 
@@ -202,67 +210,84 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 			// to be such that the original structure's NW (-X, -Z) corner is at the origin.
 			origin = template.getZeroPositionWithTransform(origin, settings.getMirror(), settings.getRotation());
 
-			spawnStructure(random, world, origin, template, settings, structureFile);
-
-			postGenerate(random, world, settings);
-
-			structureMap.put(ChunkPos.asLong(origin.getX() >> 4, origin.getZ() >> 4), settings.getBoundingBox());
+			if(!canDeferPlacement() || isAreaGenerated(world, box)){
+				// Carry on using the same random so structures placed in one go are the same as they always were
+				placePiece(world, origin, template, settings, box, structureFile, random);
+			}else{
+				// Each piece gets a random generated from this seed, so the variant is the same no matter when it's placed
+				long seed = random.nextLong();
+				// Place the parts of the structure that are in existing chunks now, and queue the rest for later
+				for(int x = box.minX >> 4; x <= box.maxX >> 4; x++){
+					for(int z = box.minZ >> 4; z <= box.maxZ >> 4; z++){
+
+						StructureBoundingBox clip = new StructureBoundingBox(Math.max(box.minX, x << 4), box.minY,
+								Math.max(box.minZ, z << 4), Math.min(box.maxX, (x << 4) + 15), box.maxY,
+								Math.min(box.maxZ, (z << 4) + 15));
+
+						if(world.isChunkGeneratedAt(x, z)){
+							placePiece(world, origin, template, settings, clip, structureFile, new Random(seed));
+						}else{
+							StructurePlacementQueue.get(world).add(world, new StructurePlacementQueue.Piece(
+									getStructureName(), structureFile, origin, settings, clip, seed));
+						}
+					}
+				}
+			}
 
-			NBTTagCompound tag = new NBTTagCompound();
-			tag.setInteger("ChunkX", chunkX);
-			tag.setInteger("ChunkZ", chunkZ);
-			NBTExtras.storeTagSafely(tag, "BB", settings.getBoundingBox().toNBTTagIntArray());
-			structureData.writeInstance(tag, chunkX, chunkZ);
-			structureData.markDirty();
+			getStructureIndex(world).add(settings.getBoundingBox(), chunkX, chunkZ);
 		}
 	}
 
-	/** Copied from MapGenStructure. Unlike most NBT loading, this is lazy - it only gets read from NBT when requested. */
-	protected void initializeStructureData(World world){
-
-		// If the world that was last generated is not this world, load the data for the new world
-		// This is a bit of a dirty hack, it would be better if we had separate instances per-world but... effort...
-		// For now it works, maybe one day I'll improve it
-		if(world != this.world){
-
-			this.world = world;
-
-			this.structureData = (MapGenStructureData)world.getPerWorldStorage().getOrLoadData(MapGenStructureData.class, this.getStructureName());
-
-			// This has to be cleared or worlds will interfere with each other!
-			// Vanilla doesn't have to do this because each world has a separate ChunkGenerator which stores MapGenBase
-			// instances
-			this.structureMap.clear();
-
-			if(this.structureData == null){
-
-				this.structureData = new MapGenStructureData(this.getStructureName());
-				world.getPerWorldStorage().setData(this.getStructureName(), this.structureData);
-
-			}else{
-
-				NBTTagCompound nbt = this.structureData.getTagCompound();
-
-				for(String s : nbt.getKeySet()){
-
-					NBTBase nbtbase = nbt.getTag(s);
-
-					if(nbtbase.getId() == Constants.NBT.TAG_COMPOUND){
-
-						NBTTagCompound entry = (NBTTagCompound)nbtbase;
+	/** Returns whether the structure may be placed in pieces, with the pieces that fall in chunks that haven't been
+	 * generated yet being placed later when those chunks generate. See {@link StructurePlacementQueue}. By default this
+	 * returns true, subclasses should override it to return false if they need the whole structure to be placed at
+	 * once. */
+	protected boolean canDeferPlacement(){
+		return true;
+	}
 
-						if(entry.hasKey("ChunkX") && entry.hasKey("ChunkZ") && entry.hasKey("BB")){
+	/**
+	 * Places the part of the given structure that lies within the given clipping box, by calling
+	 * {@link WorldGenWizardryStructure#spawnStructure(Random, World, BlockPos, Template, PlacementSettings, ResourceLocation)}
+	 * and {@link WorldGenWizardryStructure#postGenerate(Random, World, PlacementSettings)} with placement settings whose
+	 * bounding box is the clipping box.
+	 * @param world The world to place the structure in
+	 * @param origin The origin of the structure, already adjusted for the rotation/mirror settings
+	 * @param template The structure template
+	 * @param settings The placement settings for the whole structure
+	 * @param clip The part of the structure's bounding box to place
+	 * @param structureFile The location of the structure file, for logging purposes
+	 * @param random The random number generator to use for the structure. For structures placed in several pieces,
+	 *               this must be created from the same seed for every piece.
+	 */
+	void placePiece(World world, BlockPos origin, Template template, PlacementSettings settings,
+					StructureBoundingBox clip, ResourceLocation structureFile, Random random){
+		PlacementSettings pieceSettings = settings.copy().setBoundingBox(clip);
+		spawnStructure(random, world, origin, template, pieceSettings, structureFile);
+		postGenerate(random, world, pieceSettings);
+	}
 
-							int i = entry.getInteger("ChunkX");
-							int j = entry.getInteger("ChunkZ");
-							int[] coords = entry.getIntArray("BB");
+	/** Returns true if the structure with the given placement settings is being placed in its main piece, i.e. the
+	 * one containing its origin. Structures that may be placed in pieces should use this to make sure anything that
+	 * isn't a block in the template (map markers, for example) is only done once. Data blocks don't need checking
+	 * since {@link Template#getDataBlocks(BlockPos, PlacementSettings)} only returns those inside the bounding box. */
+	protected static boolean isMainPiece(BlockPos origin, PlacementSettings settings){
+		return settings.getBoundingBox() == null || settings.getBoundingBox().isVecInside(origin);
+	}
 
-							this.structureMap.put(ChunkPos.asLong(i, j), new StructureBoundingBox(coords));
-						}
-					}
-				}
+	private static boolean isAreaGenerated(World world, StructureBoundingBox box){
+		for(int x = box.minX >> 4; x <= box.maxX >> 4; x++){
+			for(int z = box.minZ >> 4; z <= box.maxZ >> 4; z++){
+				if(!world.isChunkGeneratedAt(x, z)) return false;
 			}
 		}
+		return true;
+	}
+
+	/** Returns the index of structures of this type that have been generated in the given world, loading it from the
+	 * save file if it isn't already loaded. Unlike most NBT loading, this is lazy - it only gets read when requested. */
+	protected StructureIndex getStructureIndex(World world){
+		return indices.computeIfAbsent(world, w -> StructureIndex.load(w, getStructureName()));
 	}
 
 	/** Returns true if the given position is within a structure of this type in the given world, false
@@ -270,32 +295,24 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 	 * warning to the console. */
 	public boolean isInsideStructure(World world, double x, double y, double z){
 
-		initializeStructureData(world); // Load the data from the save file if it isn't already loaded
+		BlockPos pos = new BlockPos(x, y, z);
 
-		int chunkX = (int)x >> 4;
-		int chunkZ = (int)z >> 4;
-
-		if(!world.isChunkGeneratedAt(chunkX, chunkZ)){
+		if(!world.isChunkGeneratedAt(pos.getX() >> 4, pos.getZ() >> 4)){
 			Wizardry.logger.warn("Testing whether position ({}, {}, {}) is inside a structure, but that chunk hasn't been generated yet", x, y, z);
 			return false;
 		}
 
-		// Vanilla just iterates through the entire structure map, but we can be a little more intelligent
-		// about it by only testing the chunks near the player (since all the structures are smaller than 32x32)
-		long[] chunks = {ChunkPos.asLong(chunkX - 1, chunkZ - 1), ChunkPos.asLong(chunkX - 1, chunkZ), ChunkPos.asLong(chunkX - 1, chunkZ + 1),
-				ChunkPos.asLong(chunkX, chunkZ - 1), ChunkPos.asLong(chunkX, chunkZ), ChunkPos.asLong(chunkX, chunkZ + 1),
-				ChunkPos.asLong(chunkX + 1, chunkZ - 1), ChunkPos.asLong(chunkX + 1, chunkZ), ChunkPos.asLong(chunkX + 1, chunkZ + 1)};
-
-		for(long chunkPos : chunks){
-			if(structureMap.containsKey(chunkPos) && structureMap.get(chunkPos).isVecInside(new Vec3i(x, y, z)))
-				return true;
-		}
-
-		return false;
+		// Vanilla iterates through the entire structure map, but structures are indexed under every chunk they cover
+		// so only the chunk containing the position needs checking
+		return getStructureIndex(world).isVecInside(pos);
 	}
 
 	/** Copied from MapGenMineshaft. The general idea (it seems) is to emulate the world generator's randomisation
-	 * without actually placing any blocks. Presumably mineshafts don't need sub-chunk randomisation?  */
+	 * without actually placing any blocks. Presumably mineshafts don't need sub-chunk randomisation?
+	 * <p></p>
+	 * <b>This method blocks until the search is finished, which can take several seconds if there are no structures
+	 * nearby.</b> Where possible, use {@link WorldGenWizardryStructure#findNearestStructurePos(World, BlockPos, boolean, EntityPlayer, IntConsumer)}
+	 * instead, which performs the search on a separate thread. */
 	public BlockPos getNearestStructurePos(World world, BlockPos pos, boolean findUnexplored){
 
 		// TODO: We have a problem here, in that the 'pragmatic' placement algorithm (good as it is) requires
@@ -305,7 +322,7 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 		int j = pos.getX() >> 4;
 		int k = pos.getZ() >> 4;
 
-		for (int l = 0; l <= 1000; ++l)
+		for (int l = 0; l <= StructureSearch.MAX_RADIUS; ++l)
 		{
 			for (int i1 = -l; i1 <= l; ++i1)
 			{
@@ -317,13 +334,11 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 
 					if (flag || flag1)
 					{
-						// TESTME: Is this the same as Forge's per-chunk seeds? (see caller of generate())
 						int k1 = j + i1;
 						int l1 = k + j1;
-						this.random.setSeed((long)(k1 ^ l1) ^ world.getSeed());
-						this.random.nextInt();
 
-						if(this.canGenerate(this.random, world, k1, l1) && (!findUnexplored || !world.isChunkGeneratedAt(k1, l1))){
+						if(this.couldGenerate(this.random, world, k1, l1) && this.isValidLocation(world, k1, l1)
+								&& (!findUnexplored || !world.isChunkGeneratedAt(k1, l1))){
 							return new BlockPos((k1 << 4) + 8, 64, (l1 << 4) + 8);
 						}
 					}
@@ -334,16 +349,75 @@ public abstract class WorldGenWizardryStructure implements IWorldGenerator {
 		return null;
 	}
 
+	/**
+	 * Starts an asynchronous search for the nearest structure of this type to the given position. The search itself
+	 * runs on a separate thread, so this method returns immediately. See {@link StructureSearch} for details.
+	 * @param world The world to search in
+	 * @param pos The position to search from
+	 * @param findUnexplored True to only find structures in chunks that haven't been generated yet
+	 * @param requester The player who requested the search, or null if it wasn't requested by a player. If this player
+	 *                  logs out before the search finishes, it will be cancelled.
+	 * @param progress A callback which is passed the number of chunks searched outwards so far every so often, or
+	 *                 null if progress updates are not required. Always called from the main thread.
+	 * @return A future which completes (on the main thread) with the approximate position of the nearest structure, or
+	 * null if there were none within {@link StructureSearch#MAX_RADIUS} chunks. Cancelling the future stops the search.
+	 */
+	public CompletableFuture<BlockPos> findNearestStructurePos(World world, BlockPos pos, boolean findUnexplored,
+															   @Nullable EntityPlayer requester, @Nullable IntConsumer progress){
+		return StructureSearch.start(this, world, pos, findUnexplored, requester, progress);
+	}
+
+	/** Emulates the world generator's randomisation for the given chunk, returning true if it would pass
+	 * {@link WorldGenWizardryStructure#canGenerate(Random, World, int, int)}. Thread-safe as long as each thread
+	 * passes in its own random number generator. */
+	boolean couldGenerate(Random random, World world, int chunkX, int chunkZ){
+		// TESTME: Is this the same as Forge's per-chunk seeds? (see caller of generate())
+		random.setSeed((long)(chunkX ^ chunkZ) ^ world.getSeed());
+		random.nextInt();
+		return canGenerate(random, world, chunkX, chunkZ);
+	}
+
 	/** Returns the world generator with the given name. */
 	public static WorldGenWizardryStructure byName(String name){
 		return generators.get(name);
 	}
 
+	/** Returns the names of all the structure types that have world generators. */
+	public static Set<String> getStructureNames(){
+		return Collections.unmodifiableSet(generators.keySet());
+	}
+
 	@SubscribeEvent
 	public static void onPlayerTick(TickEvent.PlayerTickEvent event){
+
 		if(event.player instanceof EntityPlayerMP && event.player.ticksExisted % 20 == 0){
-			WizardryAdvancementTriggers.visit_structure.trigger((EntityPlayerMP)event.player);
+
+			EntityPlayerMP player = (EntityPlayerMP)event.player;
+
+			// Nothing to do if the player has already visited every structure
+			if(!WizardryAdvancementTriggers.visit_structure.hasListeners(player)) return;
+
+			int chunkX = MathHelper.floor(player.posX) >> 4;
+			int chunkZ = MathHelper.floor(player.posZ) >> 4;
+			Long chunk = ChunkPos.asLong(chunkX, chunkZ);
+
+			if(chunk.equals(playersAwayFromStructures.get(player))) return;
+
+			if(generators.values().stream().noneMatch(g -> g.getStructureIndex(player.world).intersectsChunk(chunkX, chunkZ))){
+				playersAwayFromStructures.put(player, chunk);
+				return;
+			}
+
+			playersAwayFromStructures.remove(player);
+
+			WizardryAdvancementTriggers.visit_structure.trigger(player);
 		}
 	}
 
+	@SubscribeEvent
+	public static void onPlayerChangedDimensionEvent(PlayerEvent.PlayerChangedDimensionEvent event){
+		// The same chunk coordinates in a different dimension may well have structures in
+		playersAwayFromStructures.remove(event.player);
+	}
+
 }